@@ -9,4 +9,7 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.SOURCE)
 public @interface Reified {
     String PATH = "it.auties.reified.annotation.Reified";
+
+    // Only used by static methods: invocations are replaced by the body of the method if it's a single small return statement
+    boolean inline() default false;
 }
@@ -0,0 +1,303 @@
+package it.auties.reified.runtime;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Objects;
+
+// The storage of a reified collection: Integer, Long and Double values are stored in primitive arrays, any other type in an array of said type.
+// Primitive columns cannot store null, just like List.of and Map.of.
+abstract class Column {
+    private static final String NULL_MESSAGE = "Cannot store null in a collection backed by primitives";
+
+    static Column of(Class<?> type, int capacity) {
+        if (type == Integer.class) {
+            return new IntColumn(capacity);
+        }
+
+        if (type == Long.class) {
+            return new LongColumn(capacity);
+        }
+
+        if (type == Double.class) {
+            return new DoubleColumn(capacity);
+        }
+
+        return new ObjectColumn(type, capacity);
+    }
+
+    abstract int capacity();
+
+    abstract void resize(int capacity);
+
+    abstract void move(int from, int to, int length);
+
+    abstract Object read(int index);
+
+    abstract void write(int index, Object value);
+
+    abstract void release(int index);
+
+    // Same as the hash code of the boxed value, so that the hash of a stored key can be computed without boxing it
+    abstract int hash(int index);
+
+    abstract boolean matches(int index, Object value);
+
+    abstract Column empty(int capacity);
+
+    abstract void copy(int from, Column target, int to);
+
+    static final class IntColumn extends Column {
+        private int[] values;
+        IntColumn(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        int readInt(int index) {
+            return values[index];
+        }
+
+        void writeInt(int index, int value) {
+            values[index] = value;
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            this.values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(values, from, values, to, length);
+        }
+
+        @Override
+        Object read(int index) {
+            return values[index];
+        }
+
+        @Override
+        void write(int index, Object value) {
+            values[index] = (Integer) Objects.requireNonNull(value, NULL_MESSAGE);
+        }
+
+        @Override
+        void release(int index) {
+
+        }
+
+        @Override
+        int hash(int index) {
+            return Integer.hashCode(values[index]);
+        }
+
+        @Override
+        boolean matches(int index, Object value) {
+            return value instanceof Integer && values[index] == (Integer) value;
+        }
+
+        @Override
+        Column empty(int capacity) {
+            return new IntColumn(capacity);
+        }
+
+        @Override
+        void copy(int from, Column target, int to) {
+            ((IntColumn) target).values[to] = values[from];
+        }
+    }
+
+    static final class LongColumn extends Column {
+        private long[] values;
+        LongColumn(int capacity) {
+            this.values = new long[capacity];
+        }
+
+        long readLong(int index) {
+            return values[index];
+        }
+
+        void writeLong(int index, long value) {
+            values[index] = value;
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            this.values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(values, from, values, to, length);
+        }
+
+        @Override
+        Object read(int index) {
+            return values[index];
+        }
+
+        @Override
+        void write(int index, Object value) {
+            values[index] = (Long) Objects.requireNonNull(value, NULL_MESSAGE);
+        }
+
+        @Override
+        void release(int index) {
+
+        }
+
+        @Override
+        int hash(int index) {
+            return Long.hashCode(values[index]);
+        }
+
+        @Override
+        boolean matches(int index, Object value) {
+            return value instanceof Long && values[index] == (Long) value;
+        }
+
+        @Override
+        Column empty(int capacity) {
+            return new LongColumn(capacity);
+        }
+
+        @Override
+        void copy(int from, Column target, int to) {
+            ((LongColumn) target).values[to] = values[from];
+        }
+    }
+
+    static final class DoubleColumn extends Column {
+        private double[] values;
+        DoubleColumn(int capacity) {
+            this.values = new double[capacity];
+        }
+
+        double readDouble(int index) {
+            return values[index];
+        }
+
+        void writeDouble(int index, double value) {
+            values[index] = value;
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            this.values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(values, from, values, to, length);
+        }
+
+        @Override
+        Object read(int index) {
+            return values[index];
+        }
+
+        @Override
+        void write(int index, Object value) {
+            values[index] = (Double) Objects.requireNonNull(value, NULL_MESSAGE);
+        }
+
+        @Override
+        void release(int index) {
+
+        }
+
+        @Override
+        int hash(int index) {
+            return Double.hashCode(values[index]);
+        }
+
+        // Same semantics as Double#equals
+        @Override
+        boolean matches(int index, Object value) {
+            return value instanceof Double && Double.doubleToLongBits(values[index]) == Double.doubleToLongBits((Double) value);
+        }
+
+        @Override
+        Column empty(int capacity) {
+            return new DoubleColumn(capacity);
+        }
+
+        @Override
+        void copy(int from, Column target, int to) {
+            ((DoubleColumn) target).values[to] = values[from];
+        }
+    }
+
+    static final class ObjectColumn extends Column {
+        private final Class<?> type;
+        private Object[] values;
+        ObjectColumn(Class<?> type, int capacity) {
+            this.type = type;
+            this.values = (Object[]) Array.newInstance(type, capacity);
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            this.values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(values, from, values, to, length);
+        }
+
+        @Override
+        Object read(int index) {
+            return values[index];
+        }
+
+        @Override
+        void write(int index, Object value) {
+            values[index] = value;
+        }
+
+        @Override
+        void release(int index) {
+            values[index] = null;
+        }
+
+        @Override
+        int hash(int index) {
+            return Objects.hashCode(values[index]);
+        }
+
+        @Override
+        boolean matches(int index, Object value) {
+            return Objects.equals(values[index], value);
+        }
+
+        @Override
+        Column empty(int capacity) {
+            return new ObjectColumn(type, capacity);
+        }
+
+        @Override
+        void copy(int from, Column target, int to) {
+            ((ObjectColumn) target).values[to] = values[from];
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package it.auties.reified.runtime;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// A value computed lazily for each type, backed by a ClassValue: lookups don't hash the type and don't contend with each other.
+// A value is stored in the type it was computed for only if the type cannot outlive the class loader of the factory, that is if it's loaded by said loader or by one of its children.
+// Any other type, like a JDK class, would keep the values and their loader alive even once the cache is unreachable:
+// its value is stored in a map owned by the cache instead, and said type only marks itself with a value that doesn't reference any loader.
+// The weak set of computed types lets clear() find the types that store a value without keeping them alive.
+public final class ReifiedCache<V> {
+    private static final Object SHARED = new Object();
+
+    private final Function<? super Class<?>, ? extends V> factory;
+    private final ClassLoader loader;
+    private final ClassValue<Object> values;
+    private final Set<Class<?>> computedTypes;
+    private final Map<Class<?>, V> sharedValues;
+    private ReifiedCache(Function<? super Class<?>, ? extends V> factory) {
+        this.factory = factory;
+        this.loader = factory.getClass().getClassLoader();
+        this.computedTypes = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+        this.sharedValues = new ConcurrentHashMap<>();
+        this.values = new ClassValue<>() {
+            @Override
+            protected Object computeValue(Class<?> type) {
+                if (!isOwned(type)) {
+                    return SHARED;
+                }
+
+                computedTypes.add(type);
+                return factory.apply(type);
+            }
+        };
+    }
+
+    public static <V> ReifiedCache<V> of(Function<? super Class<?>, ? extends V> factory) {
+        Objects.requireNonNull(factory, "Cannot create cache: factory cannot be null");
+        return new ReifiedCache<>(factory);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Class<?> type) {
+        var value = values.get(type);
+        if (value != SHARED) {
+            return (V) value;
+        }
+
+        var shared = sharedValues.get(type);
+        if (shared != null) {
+            return shared;
+        }
+
+        // Computed outside of the map, so that a factory can look up other types: a type that is computed twice keeps the first value
+        var computed = factory.apply(type);
+        if (computed == null) {
+            return null;
+        }
+
+        var previous = sharedValues.putIfAbsent(type, computed);
+        return previous != null ? previous : computed;
+    }
+
+    // A type loaded by the loader of the factory, or by one of its children, keeps said loader alive anyway
+    private boolean isOwned(Class<?> type) {
+        if (loader == null) {
+            return true;
+        }
+
+        for (var typeLoader = type.getClassLoader(); typeLoader != null; typeLoader = typeLoader.getParent()) {
+            if (typeLoader == loader) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Shorthand for get(T) inside of a member that declares a single reified type parameter: the processor passes the injected class.
+    // The invocations that the processor doesn't bind are reported as compilation errors, so this method only throws if the processor didn't run.
+    public V get() {
+        throw new UnsupportedOperationException("Cannot get value without a type: this invocation wasn't processed by reified");
+    }
+
+    public void remove(Class<?> type) {
+        computedTypes.remove(type);
+        values.remove(type);
+        sharedValues.remove(type);
+    }
+
+    public void clear() {
+        synchronized (computedTypes) {
+            computedTypes.forEach(values::remove);
+            computedTypes.clear();
+        }
+
+        sharedValues.clear();
+    }
+}
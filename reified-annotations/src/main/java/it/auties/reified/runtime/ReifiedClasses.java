@@ -0,0 +1,14 @@
+package it.auties.reified.runtime;
+
+// Used by the processor to pass the class of a parameterized type, like List<String>, to a reified type parameter.
+// A class literal can only name the erasure of the type, so its Class is cast here instead of at the call site: the unchecked cast doesn't warn in the sources that are rewritten.
+public final class ReifiedClasses {
+    private ReifiedClasses() {
+        throw new UnsupportedOperationException("ReifiedClasses is a utility class and cannot be initialized");
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Class<T> parameterized(Class<?> erasure) {
+        return (Class<T>) erasure;
+    }
+}
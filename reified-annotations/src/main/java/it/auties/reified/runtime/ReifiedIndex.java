@@ -0,0 +1,103 @@
+package it.auties.reified.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// The concrete types passed to each reified type parameter, as recorded by the processor in META-INF/reified/types.idx.
+// Each line of the index maps a declaration to the binary names of its types, for example demo.JsonUtils#fromJson(java.lang.String)<T>=demo.ExampleObject,demo.User:
+// class declarations are named after their class and method declarations after their class, their name and the parameters of their source, without the ones added by the processor.
+// Frameworks can use it to build the values of a ReifiedCache at startup, instead of on the first invocation.
+public final class ReifiedIndex {
+    public static final String PATH = "META-INF/reified/types.idx";
+    private static final String ARRAY_SUFFIX = "[]";
+
+    private final ClassLoader loader;
+    private final Map<String, Set<String>> types;
+    private ReifiedIndex(ClassLoader loader, Map<String, Set<String>> types) {
+        this.loader = loader;
+        this.types = types;
+    }
+
+    // Merges the indexes of every module or jar visible to the loader
+    public static ReifiedIndex load(ClassLoader loader) {
+        Objects.requireNonNull(loader, "Cannot load index: loader cannot be null");
+        try {
+            var types = new TreeMap<String, Set<String>>();
+            var resources = loader.getResources(PATH);
+            while (resources.hasMoreElements()) {
+                read(resources.nextElement(), types);
+            }
+
+            return new ReifiedIndex(loader, types);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Cannot load index", exception);
+        }
+    }
+
+    private static void read(URL resource, Map<String, Set<String>> types) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var separator = line.lastIndexOf('=');
+                if (line.isBlank() || line.startsWith("#") || separator == -1) {
+                    continue;
+                }
+
+                var declarationTypes = types.computeIfAbsent(line.substring(0, separator), ignored -> new TreeSet<>());
+                for (var type : line.substring(separator + 1).split(",")) {
+                    declarationTypes.add(type.trim());
+                }
+            }
+        }
+    }
+
+    public Set<String> declarations() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    public Set<String> typeNames(String declaration) {
+        return Collections.unmodifiableSet(types.getOrDefault(declaration, Set.of()));
+    }
+
+    // The types are loaded without being initialized
+    public Set<Class<?>> types(String declaration) {
+        return typeNames(declaration)
+                .stream()
+                .map(this::loadType)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public Set<Class<?>> types() {
+        return types.values()
+                .stream()
+                .flatMap(Set::stream)
+                .map(this::loadType)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private Class<?> loadType(String name) {
+        try {
+            if (name.endsWith(ARRAY_SUFFIX)) {
+                var component = loadType(name.substring(0, name.length() - ARRAY_SUFFIX.length()));
+                return Array.newInstance(component, 0).getClass();
+            }
+
+            return Class.forName(name, false, loader);
+        } catch (ClassNotFoundException exception) {
+            throw new IllegalArgumentException("Cannot load indexed type: " + name, exception);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package it.auties.reified.runtime;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+// An array list that stores its elements in an array of its type: Integer, Long and Double elements are stored unboxed.
+// The constructors that don't take a type are bound by the processor to the type argument of the invocation, for example new ReifiedList<Long>() becomes new ReifiedList<>(Long.class).
+// If the invocation wasn't processed by reified, the elements are stored in an Object array.
+public class ReifiedList<T> extends AbstractList<T> implements RandomAccess {
+    private static final int DEFAULT_CAPACITY = 10;
+    private final Class<T> type;
+    private final Column column;
+    private int size;
+    public ReifiedList(Class<T> type, int capacity) {
+        Objects.requireNonNull(type, "Cannot create list: type cannot be null");
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cannot create list: illegal capacity " + capacity);
+        }
+
+        this.type = type;
+        this.column = Column.of(type, capacity);
+    }
+
+    public ReifiedList(Class<T> type) {
+        this(type, DEFAULT_CAPACITY);
+    }
+
+    public ReifiedList(Class<T> type, Collection<? extends T> elements) {
+        this(type, elements.size());
+        addAll(elements);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ReifiedList(int capacity) {
+        this((Class<T>) Object.class, capacity);
+    }
+
+    public ReifiedList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ReifiedList(Collection<? extends T> elements) {
+        this((Class<T>) Object.class, elements);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        return (T) column.read(index);
+    }
+
+    @Override
+    public T set(int index, T element) {
+        var old = get(index);
+        column.write(index, element);
+        return old;
+    }
+
+    @Override
+    public boolean add(T element) {
+        add(size, element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        // The element is written to the free slot first: a primitive column rejects null, and the elements must not be shifted if it does
+        column.write(size, element);
+        column.move(index, index + 1, size - index);
+        column.write(index, element);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        var old = get(index);
+        column.move(index + 1, index, size - index - 1);
+        column.release(--size);
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        for (var index = 0; index < size; index++) {
+            column.release(index);
+        }
+
+        this.size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void ensureCapacity(int capacity) {
+        var current = column.capacity();
+        if (capacity <= current) {
+            return;
+        }
+
+        column.resize(Math.max(capacity, current + (current >> 1) + 1));
+    }
+
+    public void trimToSize() {
+        if (size < column.capacity()) {
+            column.resize(size);
+        }
+    }
+
+    // Unboxed accessors: if the list isn't backed by the matching primitive array, the element is unboxed
+    public int getInt(int index) {
+        Objects.checkIndex(index, size);
+        return column instanceof Column.IntColumn ? ((Column.IntColumn) column).readInt(index) : (Integer) column.read(index);
+    }
+
+    public long getLong(int index) {
+        Objects.checkIndex(index, size);
+        return column instanceof Column.LongColumn ? ((Column.LongColumn) column).readLong(index) : (Long) column.read(index);
+    }
+
+    public double getDouble(int index) {
+        Objects.checkIndex(index, size);
+        return column instanceof Column.DoubleColumn ? ((Column.DoubleColumn) column).readDouble(index) : (Double) column.read(index);
+    }
+
+    public void addInt(int element) {
+        if (!(column instanceof Column.IntColumn)) {
+            add(type.cast(element));
+            return;
+        }
+
+        ensureCapacity(size + 1);
+        ((Column.IntColumn) column).writeInt(size++, element);
+        modCount++;
+    }
+
+    public void addLong(long element) {
+        if (!(column instanceof Column.LongColumn)) {
+            add(type.cast(element));
+            return;
+        }
+
+        ensureCapacity(size + 1);
+        ((Column.LongColumn) column).writeLong(size++, element);
+        modCount++;
+    }
+
+    public void addDouble(double element) {
+        if (!(column instanceof Column.DoubleColumn)) {
+            add(type.cast(element));
+            return;
+        }
+
+        ensureCapacity(size + 1);
+        ((Column.DoubleColumn) column).writeDouble(size++, element);
+        modCount++;
+    }
+}
@@ -0,0 +1,340 @@
+package it.auties.reified.runtime;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// An open addressing hash map that stores its keys and values in arrays of their types: Integer, Long and Double keys and values are stored unboxed.
+// The constructors that don't take the types are bound by the processor to the type arguments of the invocation, for example new ReifiedMap<Long, String>() becomes new ReifiedMap<>(Long.class, String.class).
+// If the invocation wasn't processed by reified, the keys and values are stored in Object arrays.
+// Null keys are not supported, null values are only supported if the values aren't stored unboxed.
+public class ReifiedMap<K, V> extends AbstractMap<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75F;
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+    private final Class<K> keyType;
+    private final Class<V> valueType;
+    private Column keys;
+    private Column values;
+    private byte[] states;
+    private int size;
+    private int removed;
+    private int modCount;
+    private Set<Entry<K, V>> entrySet;
+    public ReifiedMap(Class<K> keyType, Class<V> valueType, int expectedSize) {
+        Objects.requireNonNull(keyType, "Cannot create map: key type cannot be null");
+        Objects.requireNonNull(valueType, "Cannot create map: value type cannot be null");
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Cannot create map: illegal expected size " + expectedSize);
+        }
+
+        this.keyType = keyType;
+        this.valueType = valueType;
+        var capacity = tableSize(expectedSize);
+        this.keys = Column.of(keyType, capacity);
+        this.values = Column.of(valueType, capacity);
+        this.states = new byte[capacity];
+    }
+
+    public ReifiedMap(Class<K> keyType, Class<V> valueType) {
+        this(keyType, valueType, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ReifiedMap(int expectedSize) {
+        this((Class<K>) Object.class, (Class<V>) Object.class, expectedSize);
+    }
+
+    public ReifiedMap() {
+        this(0);
+    }
+
+    public Class<K> keyType() {
+        return keyType;
+    }
+
+    public Class<V> valueType() {
+        return valueType;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        var index = find(key);
+        return index == -1 ? null : (V) values.read(index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Cannot put value: key cannot be null");
+        var index = find(key);
+        if (index != -1) {
+            var old = (V) values.read(index);
+            values.write(index, value);
+            return old;
+        }
+
+        ensureCapacity();
+        // The value is written first: a primitive column rejects null, and the slot must still be free if it does
+        index = findSlot(key);
+        values.write(index, value);
+        keys.write(index, key);
+        if (states[index] == REMOVED) {
+            removed--;
+        }
+
+        states[index] = FULL;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        var index = find(key);
+        return index == -1 ? null : removeAt(index);
+    }
+
+    @Override
+    public void clear() {
+        for (var index = 0; index < states.length; index++) {
+            keys.release(index);
+            values.release(index);
+            states[index] = FREE;
+        }
+
+        this.size = 0;
+        this.removed = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            this.entrySet = new EntrySet();
+        }
+
+        return entrySet;
+    }
+
+    private int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        var mask = states.length - 1;
+        var index = spread(key.hashCode()) & mask;
+        while (states[index] != FREE) {
+            if (states[index] == FULL && keys.matches(index, key)) {
+                return index;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private int findSlot(Object key) {
+        var mask = states.length - 1;
+        var index = spread(key.hashCode()) & mask;
+        while (states[index] == FULL) {
+            index = (index + 1) & mask;
+        }
+
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V removeAt(int index) {
+        var old = (V) values.read(index);
+        keys.release(index);
+        values.release(index);
+        states[index] = REMOVED;
+        size--;
+        removed++;
+        modCount++;
+        return old;
+    }
+
+    private void ensureCapacity() {
+        if (size + removed + 1 <= states.length * LOAD_FACTOR) {
+            return;
+        }
+
+        rehash(tableSize(size + 1));
+    }
+
+    // Removed slots are dropped, so the table is rehashed in place if it is mostly made of removed slots
+    private void rehash(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        var oldStates = states;
+        this.keys = oldKeys.empty(capacity);
+        this.values = oldValues.empty(capacity);
+        this.states = new byte[capacity];
+        this.removed = 0;
+        var mask = capacity - 1;
+        for (var oldIndex = 0; oldIndex < oldStates.length; oldIndex++) {
+            if (oldStates[oldIndex] != FULL) {
+                continue;
+            }
+
+            var index = spread(oldKeys.hash(oldIndex)) & mask;
+            while (states[index] == FULL) {
+                index = (index + 1) & mask;
+            }
+
+            oldKeys.copy(oldIndex, keys, index);
+            oldValues.copy(oldIndex, values, index);
+            states[index] = FULL;
+        }
+    }
+
+    private static int tableSize(int expectedSize) {
+        var capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize + 1) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    private static int spread(int hash) {
+        var spread = hash * 0x9E3779B9;
+        return spread ^ (spread >>> 16);
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            ReifiedMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next;
+        private int last;
+        private int expectedModCount;
+        private EntryIterator() {
+            this.next = advance(0);
+            this.last = -1;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < states.length;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            this.last = next;
+            this.next = advance(next + 1);
+            return new ReifiedEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeAt(last);
+            this.last = -1;
+            this.expectedModCount = modCount;
+        }
+
+        private int advance(int index) {
+            while (index < states.length && states[index] != FULL) {
+                index++;
+            }
+
+            return index;
+        }
+    }
+
+    // Reads through the table: the entry is only valid until the map is modified
+    private class ReifiedEntry implements Entry<K, V> {
+        private final int index;
+        private ReifiedEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getKey() {
+            return (K) keys.read(index);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values.read(index);
+        }
+
+        @Override
+        public V setValue(V value) {
+            var old = getValue();
+            values.write(index, value);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Map.Entry
+                    && Objects.equals(getKey(), ((Map.Entry<?, ?>) other).getKey())
+                    && Objects.equals(getValue(), ((Map.Entry<?, ?>) other).getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
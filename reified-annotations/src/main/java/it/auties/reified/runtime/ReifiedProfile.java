@@ -0,0 +1,90 @@
+package it.auties.reified.runtime;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts the types passed by each call site that was rewritten while the reified.profile option was enabled.
+// The processor wraps the class passed by the site in record(site, type), which returns the class: the counters are striped, so concurrent invocations of the same site don't contend.
+// The counters are registered as an MXBean when the first site is recorded.
+// Types are counted by name, so the counters don't keep the profiled classes, and their class loaders, from being unloaded. A null class is counted as "null".
+public final class ReifiedProfile {
+    public static final String OBJECT_NAME = "it.auties.reified:type=ReifiedProfile";
+    private static final String NULL_TYPE = "null";
+    private static final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> COUNTERS = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            ProfileBean.register();
+        } catch (NoClassDefFoundError ignored) {
+            // java.management isn't in the runtime image: the counters can still be read through counts()
+        }
+    }
+
+    private ReifiedProfile() {
+        throw new UnsupportedOperationException("ReifiedProfile is a utility class and cannot be initialized");
+    }
+
+    public static <T> Class<T> record(String site, Class<T> type) {
+        var counters = COUNTERS.get(site);
+        if (counters == null) {
+            counters = COUNTERS.computeIfAbsent(site, ignored -> new ConcurrentHashMap<>());
+        }
+
+        var name = type == null ? NULL_TYPE : type.getName();
+        var counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, ignored -> new LongAdder());
+        }
+
+        counter.increment();
+        return type;
+    }
+
+    public static Map<String, Map<String, Long>> counts() {
+        var counts = new TreeMap<String, Map<String, Long>>();
+        COUNTERS.forEach((site, counters) -> {
+            var siteCounts = new TreeMap<String, Long>();
+            counters.forEach((type, counter) -> siteCounts.put(type, counter.sum()));
+            counts.put(site, siteCounts);
+        });
+        return counts;
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+    }
+
+    // The management classes are only referenced by this class, so that ReifiedProfile can be loaded without them
+    private static final class ProfileBean implements ReifiedProfileMXBean {
+        private static void register() {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new ProfileBean(), new ObjectName(OBJECT_NAME));
+            } catch (JMException ignored) {
+                // Already registered by a copy of this class loaded by another class loader
+            }
+        }
+
+        @Override
+        public Map<String, Map<String, Long>> getCounts() {
+            return counts();
+        }
+
+        @Override
+        public Map<String, Integer> getTypes() {
+            var types = new TreeMap<String, Integer>();
+            COUNTERS.forEach((site, counters) -> types.put(site, counters.size()));
+            return types;
+        }
+
+        @Override
+        public void reset() {
+            ReifiedProfile.reset();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package it.auties.reified.runtime;
+
+import java.util.Map;
+
+// The counters of ReifiedProfile, registered as it.auties.reified:type=ReifiedProfile
+public interface ReifiedProfileMXBean {
+    // The number of invocations of each call site, by the name of the type that was passed
+    Map<String, Map<String, Long>> getCounts();
+
+    // The number of distinct types that were passed to each call site: a site with more than two is megamorphic
+    Map<String, Integer> getTypes();
+
+    void reset();
+}
@@ -0,0 +1,73 @@
+package it.auties.reified.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// The implementations of a type declared in the sources of a compilation, collected by the processor instead of being looked up at runtime like ServiceLoader does.
+// ReifiedRegistry.<Codec>all() and ReifiedRegistry.<Codec>create() are bound by the processor to a static registry in the top level class of the invocation:
+// the table is built once, when said class is initialized, and every invocation reads it.
+// The invocations that the processor doesn't bind are reported as compilation errors, so the methods that don't take a registry are never called.
+// Only concrete classes that are accessible from the invocation are listed, only the ones that also have an accessible no args constructor are created.
+public final class ReifiedRegistry<T> {
+    private final Class<T> type;
+    private final List<Class<? extends T>> implementations;
+    private final List<Supplier<? extends T>> factories;
+    private ReifiedRegistry(Class<T> type, List<Class<? extends T>> implementations, List<Supplier<? extends T>> factories) {
+        this.type = type;
+        this.implementations = implementations;
+        this.factories = factories;
+    }
+
+    // Used by the processor to initialize the registry of an invocation
+    @SuppressWarnings("unchecked")
+    public static <T> ReifiedRegistry<T> of(Class<T> type, Class<?>[] implementations, Supplier<?>[] factories) {
+        Objects.requireNonNull(type, "Cannot create registry: type cannot be null");
+        List<Class<? extends T>> checkedImplementations = Arrays.stream(implementations)
+                .map(implementation -> implementation.asSubclass(type))
+                .collect(Collectors.toUnmodifiableList());
+        List<Supplier<? extends T>> checkedFactories = Arrays.stream(factories)
+                .map(factory -> (Supplier<? extends T>) factory)
+                .collect(Collectors.toUnmodifiableList());
+        return new ReifiedRegistry<>(type, checkedImplementations, checkedFactories);
+    }
+
+    // Replaced by the processor with all(ReifiedRegistry)
+    public static <T> List<Class<? extends T>> all() {
+        throw new UnsupportedOperationException("Cannot list implementations without a type: this invocation wasn't processed by reified");
+    }
+
+    public static <T> List<Class<? extends T>> all(ReifiedRegistry<T> registry) {
+        return registry.implementations();
+    }
+
+    // Replaced by the processor with create(ReifiedRegistry)
+    public static <T> List<T> create() {
+        throw new UnsupportedOperationException("Cannot create implementations without a type: this invocation wasn't processed by reified");
+    }
+
+    public static <T> List<T> create(ReifiedRegistry<T> registry) {
+        return registry.instances();
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public List<Class<? extends T>> implementations() {
+        return implementations;
+    }
+
+    // Creates a new instance of every implementation
+    public List<T> instances() {
+        var instances = new ArrayList<T>(factories.size());
+        for (var factory : factories) {
+            instances.add(factory.get());
+        }
+
+        return instances;
+    }
+}
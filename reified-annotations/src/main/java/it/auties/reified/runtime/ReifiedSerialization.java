@@ -0,0 +1,43 @@
+package it.auties.reified.runtime;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+// Used by the writeObject and readObject methods generated for the transient class fields(reified.transient option).
+// A type is written as its name instead of as a class descriptor: the name of a class is always the same instance,
+// so the stream writes it once and refers to it by handle for every other instance of the same type.
+public final class ReifiedSerialization {
+    private ReifiedSerialization() {
+        throw new UnsupportedOperationException("ReifiedSerialization is a utility class and cannot be initialized");
+    }
+
+    public static void writeType(ObjectOutputStream stream, Class<?> type) throws IOException {
+        stream.writeObject(type == null ? null : type.getName());
+    }
+
+    // The type is loaded by the class loader of the class that declares the field, or by the context class loader if the first cannot see it
+    @SuppressWarnings("unchecked")
+    public static <T> Class<T> readType(ObjectInputStream stream, Class<?> owner) throws IOException, ClassNotFoundException {
+        var name = stream.readObject();
+        if (name == null) {
+            return null;
+        }
+
+        if (!(name instanceof String)) {
+            throw new InvalidObjectException("Cannot read type, expected a class name: " + name);
+        }
+
+        try {
+            return (Class<T>) Class.forName((String) name, false, owner.getClassLoader());
+        } catch (ClassNotFoundException exception) {
+            var contextLoader = Thread.currentThread().getContextClassLoader();
+            if (contextLoader == null || contextLoader == owner.getClassLoader()) {
+                throw exception;
+            }
+
+            return (Class<T>) Class.forName((String) name, false, contextLoader);
+        }
+    }
+}
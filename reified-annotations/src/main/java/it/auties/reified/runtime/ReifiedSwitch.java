@@ -0,0 +1,24 @@
+package it.auties.reified.runtime;
+
+import java.util.Objects;
+
+// Maps a type to its position among the cases, so that a switch on the returned ordinal can dispatch on the type.
+// Inside of a method that declares the reified type parameter, ordinal(T, ...) is replaced by the processor with an ordinal that is computed at each call site:
+// concrete types pass a constant, so the switch costs a tableswitch and no lookup. Type variables still call this method, which compares the type with each case.
+public final class ReifiedSwitch {
+    private ReifiedSwitch() {
+        throw new UnsupportedOperationException("ReifiedSwitch is a utility class and cannot be initialized");
+    }
+
+    // Types are compared by identity, like type == A.class: a subtype of a case doesn't match it. Returns -1 if no case matches
+    public static int ordinal(Class<?> type, Class<?>... cases) {
+        Objects.requireNonNull(cases, "Cannot compute ordinal: cases cannot be null");
+        for (var index = 0; index < cases.length; index++) {
+            if (cases[index] == type) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+}
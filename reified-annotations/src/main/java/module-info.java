@@ -0,0 +1,6 @@
+module it.auties.reified.annotations {
+    requires static java.management;
+
+    exports it.auties.reified.annotation;
+    exports it.auties.reified.runtime;
+}
@@ -0,0 +1,88 @@
+package it.auties.reified.benchmark;
+
+import it.auties.reified.benchmark.model.ManualArray;
+import it.auties.reified.benchmark.model.ManualChild;
+import it.auties.reified.benchmark.model.ManualPair;
+import it.auties.reified.benchmark.model.ManualRecord;
+import it.auties.reified.benchmark.model.ManualSingle;
+import it.auties.reified.benchmark.model.ReifiedArray;
+import it.auties.reified.benchmark.model.ReifiedChild;
+import it.auties.reified.benchmark.model.ReifiedPair;
+import it.auties.reified.benchmark.model.ReifiedRecord;
+import it.auties.reified.benchmark.model.ReifiedSingle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Allocation of reified classes compared to hand written ones, run with the gc profiler to read the bytes allocated per operation:
+// java -jar reified-benchmarks/target/benchmarks.jar AllocationBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+    private static final int ARRAY_SIZE = 16;
+
+    private String value = "value";
+    private Integer key = 42;
+
+    @Benchmark
+    public ReifiedSingle<String> reifiedSingle() {
+        return new ReifiedSingle<String>(value);
+    }
+
+    @Benchmark
+    public ManualSingle<String> manualSingle() {
+        return new ManualSingle<>(String.class, value);
+    }
+
+    @Benchmark
+    public ReifiedPair<Integer, String> reifiedPair() {
+        return new ReifiedPair<Integer, String>(key, value);
+    }
+
+    @Benchmark
+    public ManualPair<Integer, String> manualPair() {
+        return new ManualPair<>(Integer.class, String.class, key, value);
+    }
+
+    @Benchmark
+    public ReifiedRecord<String> reifiedRecord() {
+        return new ReifiedRecord<String>(value);
+    }
+
+    @Benchmark
+    public ManualRecord<String> manualRecord() {
+        return new ManualRecord<>(String.class, value);
+    }
+
+    @Benchmark
+    public ReifiedChild reifiedChild() {
+        return new ReifiedChild(value);
+    }
+
+    @Benchmark
+    public ManualChild manualChild() {
+        return new ManualChild(value);
+    }
+
+    @Benchmark
+    public ReifiedArray<String> reifiedArray() {
+        return new ReifiedArray<String>(ARRAY_SIZE);
+    }
+
+    @Benchmark
+    public ManualArray<String> manualArray() {
+        return new ManualArray<>(String.class, ARRAY_SIZE);
+    }
+}
@@ -0,0 +1,202 @@
+package it.auties.reified.benchmark;
+
+import com.sun.source.util.JavacTask;
+import it.auties.reified.processor.ReifiedPlugin;
+import it.auties.reified.processor.ReifiedProcessor;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Runs many in-process compilations at the same time, like a build daemon that compiles several modules in parallel with a shared processor class loader.
+// Half of the tasks use the processor and half the plugin, and every other task also compiles a broken unit:
+// each task must only report the error of its own broken unit, and the classes of the others must return the types of their own sources.
+// java -cp reified-benchmarks/target/benchmarks.jar it.auties.reified.benchmark.ConcurrentCompilationStress [tasks] [rounds]
+public class ConcurrentCompilationStress {
+    private static final int DEFAULT_TASKS = 64;
+    private static final int DEFAULT_ROUNDS = 3;
+    private static final String BROKEN_FILE = "Broken.java";
+    private static final String BROKEN_CODE = "compiler.err.prob.found.req";
+
+    public static void main(String[] args) throws Exception {
+        var tasks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        var rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        var failures = 0;
+        for (var round = 0; round < rounds; round++) {
+            var roundFailures = runRound(tasks);
+            System.out.printf("Round %d: %d/%d tasks failed%n", round + 1, roundFailures.size(), tasks);
+            roundFailures.forEach(failure -> System.out.println("  " + failure));
+            failures += roundFailures.size();
+        }
+
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static List<String> runRound(int tasks) throws Exception {
+        var executor = Executors.newFixedThreadPool(tasks);
+        try {
+            var start = new CountDownLatch(1);
+            var results = new ArrayList<Future<String>>();
+            for (var index = 0; index < tasks; index++) {
+                var task = index;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return compile(task);
+                }));
+            }
+
+            start.countDown();
+            var failures = new ArrayList<String>();
+            for (var result : results) {
+                var failure = result.get();
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            }
+
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Returns null if the task compiled as expected, or a description of what went wrong
+    private static String compile(int task) {
+        var plugin = task % 2 == 0;
+        var broken = task % 4 >= 2;
+        var name = "task " + task + "(" + (plugin ? "plugin" : "processor") + (broken ? ", broken" : "") + ")";
+        var directory = createDirectory(task);
+        try {
+            var sources = writeSources(directory, task, broken);
+            var output = Files.createDirectories(directory.resolve("out"));
+            var diagnostics = new DiagnosticCollector<JavaFileObject>();
+            var compiler = ToolProvider.getSystemJavaCompiler();
+            try (var fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+                fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(output.toFile()));
+                var options = plugin ? List.of("-classpath", System.getProperty("java.class.path"), "-proc:none") : List.of("-classpath", System.getProperty("java.class.path"));
+                var compilationTask = (JavacTask) compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromPaths(sources));
+                if (plugin) {
+                    new ReifiedPlugin().init(compilationTask);
+                } else {
+                    compilationTask.setProcessors(List.of(new ReifiedProcessor()));
+                }
+
+                var success = compilationTask.call();
+                var failure = checkDiagnostics(diagnostics.getDiagnostics(), success, broken);
+                if (failure != null || broken) {
+                    return failure == null ? null : name + ": " + failure;
+                }
+
+                var expected = "stress.t" + task + ".Marker Long java.lang.Integer";
+                var actual = run(output, task);
+                return expected.equals(actual) ? null : name + ": expected \"" + expected + "\", got \"" + actual + "\"";
+            }
+        } catch (Throwable throwable) {
+            return name + ": " + findCause(throwable);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    // javac wraps the exceptions of the processor and of the plugin
+    private static Throwable findCause(Throwable throwable) {
+        var cause = throwable;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        return cause;
+    }
+
+    private static String checkDiagnostics(List<Diagnostic<? extends JavaFileObject>> diagnostics, boolean success, boolean broken) {
+        var errors = diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .collect(Collectors.toUnmodifiableList());
+        if (!broken) {
+            return success && errors.isEmpty() ? null : "unexpected errors " + errors;
+        }
+
+        if (success || errors.size() != 1) {
+            return "expected a single error, got " + errors;
+        }
+
+        var error = errors.get(0);
+        var source = error.getSource();
+        if (source == null || !source.getName().endsWith(BROKEN_FILE) || !error.getCode().equals(BROKEN_CODE)) {
+            return "unexpected error " + error;
+        }
+
+        return null;
+    }
+
+    private static String run(Path output, int task) throws Exception {
+        try (var loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, ConcurrentCompilationStress.class.getClassLoader())) {
+            var main = loader.loadClass("stress.t" + task + ".Main");
+            return (String) main.getMethod("run").invoke(null);
+        }
+    }
+
+    private static List<Path> writeSources(Path directory, int task, boolean broken) throws IOException {
+        var pack = "stress.t" + task;
+        var packageDirectory = Files.createDirectories(directory.resolve("src").resolve("stress").resolve("t" + task));
+        var sources = new ArrayList<Path>();
+        sources.add(Files.writeString(packageDirectory.resolve("Marker.java"), "package " + pack + ";\n\npublic class Marker {\n}\n"));
+        sources.add(Files.writeString(packageDirectory.resolve("Main.java"), String.join("\n",
+                "package " + pack + ";",
+                "",
+                "import it.auties.reified.annotation.Reified;",
+                "import it.auties.reified.runtime.ReifiedList;",
+                "",
+                "public class Main {",
+                "    static <@Reified T> String name() {",
+                "        return T.getName();",
+                "    }",
+                "",
+                "    public static String run() {",
+                "        return Main.<Marker>name() + \" \" + new ReifiedList<Long>().type().getSimpleName() + \" \" + Main.<Integer>name();",
+                "    }",
+                "}",
+                "")));
+        if (broken) {
+            sources.add(Files.writeString(packageDirectory.resolve(BROKEN_FILE), "package " + pack + ";\n\npublic class Broken {\n    int value = \"task " + task + "\";\n}\n"));
+        }
+
+        return sources;
+    }
+
+    private static Path createDirectory(int task) {
+        try {
+            return Files.createTempDirectory("reified-stress-" + task + "-");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .forEach(path -> path.toFile().delete());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package it.auties.reified.benchmark;
+
+import it.auties.reified.benchmark.model.ManualArray;
+import it.auties.reified.benchmark.model.ManualChild;
+import it.auties.reified.benchmark.model.ManualPair;
+import it.auties.reified.benchmark.model.ManualRecord;
+import it.auties.reified.benchmark.model.ManualSingle;
+import it.auties.reified.benchmark.model.ReifiedArray;
+import it.auties.reified.benchmark.model.ReifiedChild;
+import it.auties.reified.benchmark.model.ReifiedPair;
+import it.auties.reified.benchmark.model.ReifiedRecord;
+import it.auties.reified.benchmark.model.ReifiedSingle;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.vm.VM;
+
+// Prints the size of an instance of each reified class next to the size of its hand written equivalent.
+// The sizes are shallow: the classes and the values are shared by every instance, so only the array of ReifiedArray is added to its instance.
+// java -cp reified-benchmarks/target/benchmarks.jar it.auties.reified.benchmark.FootprintReport [--layout]
+public class FootprintReport {
+    private static final String VALUE = "value";
+    private static final int ARRAY_SIZE = 16;
+
+    public static void main(String[] args) {
+        var layout = args.length > 0 && args[0].equals("--layout");
+        System.out.println(VM.current().details());
+        System.out.printf("%-10s %10s %10s%n", "Case", "Reified", "Manual");
+        print("single", new ReifiedSingle<String>(VALUE), new ManualSingle<>(String.class, VALUE), layout);
+        print("pair", new ReifiedPair<Integer, String>(1, VALUE), new ManualPair<>(Integer.class, String.class, 1, VALUE), layout);
+        print("record", new ReifiedRecord<String>(VALUE), new ManualRecord<>(String.class, VALUE), layout);
+        print("child", new ReifiedChild(VALUE), new ManualChild(VALUE), layout);
+        var reifiedArray = new ReifiedArray<String>(ARRAY_SIZE);
+        var manualArray = new ManualArray<>(String.class, ARRAY_SIZE);
+        System.out.printf("%-10s %10d %10d%n", "array", sizeOf(reifiedArray) + sizeOf(reifiedArray.values()), sizeOf(manualArray) + sizeOf(manualArray.values()));
+    }
+
+    private static void print(String name, Object reified, Object manual, boolean layout) {
+        System.out.printf("%-10s %10d %10d%n", name, sizeOf(reified), sizeOf(manual));
+        if (layout) {
+            System.out.println(ClassLayout.parseInstance(reified).toPrintable());
+            System.out.println(ClassLayout.parseInstance(manual).toPrintable());
+        }
+    }
+
+    private static long sizeOf(Object instance) {
+        return ClassLayout.parseInstance(instance).instanceSize();
+    }
+}
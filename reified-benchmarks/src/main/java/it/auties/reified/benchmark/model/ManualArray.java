@@ -0,0 +1,18 @@
+package it.auties.reified.benchmark.model;
+
+import java.lang.reflect.Array;
+
+// Hand written equivalent of ReifiedArray
+public class ManualArray<T> {
+    private final Class<T> type;
+    private final T[] values;
+    @SuppressWarnings("unchecked")
+    public ManualArray(Class<T> type, int size) {
+        this.type = type;
+        this.values = (T[]) Array.newInstance(type, size);
+    }
+
+    public T[] values() {
+        return values;
+    }
+}
@@ -0,0 +1,8 @@
+package it.auties.reified.benchmark.model;
+
+// Hand written equivalent of ReifiedChild
+public class ManualChild extends ManualSingle<String> {
+    public ManualChild(String value) {
+        super(String.class, value);
+    }
+}
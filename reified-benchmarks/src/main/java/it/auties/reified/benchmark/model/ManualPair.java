@@ -0,0 +1,31 @@
+package it.auties.reified.benchmark.model;
+
+// Hand written equivalent of ReifiedPair
+public class ManualPair<K, V> {
+    private final Class<K> keyType;
+    private final Class<V> valueType;
+    private final K key;
+    private final V value;
+    public ManualPair(Class<K> keyType, Class<V> valueType, K key, V value) {
+        this.keyType = keyType;
+        this.valueType = valueType;
+        this.key = key;
+        this.value = value;
+    }
+
+    public K key() {
+        return key;
+    }
+
+    public V value() {
+        return value;
+    }
+
+    public Class<?> keyType() {
+        return keyType;
+    }
+
+    public Class<?> valueType() {
+        return valueType;
+    }
+}
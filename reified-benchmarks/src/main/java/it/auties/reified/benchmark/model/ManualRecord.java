@@ -0,0 +1,10 @@
+package it.auties.reified.benchmark.model;
+
+import java.util.Objects;
+
+// Hand written equivalent of ReifiedRecord
+public record ManualRecord<T>(Class<T> type, T value) {
+    public ManualRecord {
+        Objects.requireNonNull(value, "Cannot create record: value cannot be null");
+    }
+}
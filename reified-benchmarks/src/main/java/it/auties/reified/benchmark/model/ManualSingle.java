@@ -0,0 +1,19 @@
+package it.auties.reified.benchmark.model;
+
+// Hand written equivalent of ReifiedSingle
+public class ManualSingle<T> {
+    private final Class<T> type;
+    private final T value;
+    public ManualSingle(Class<T> type, T value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public T value() {
+        return value;
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+}
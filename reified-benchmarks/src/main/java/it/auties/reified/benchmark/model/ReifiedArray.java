@@ -0,0 +1,16 @@
+package it.auties.reified.benchmark.model;
+
+import it.auties.reified.annotation.Reified;
+
+// Generic arrays are only rewritten when they initialize a local variable
+public class ReifiedArray<@Reified T> {
+    private final T[] values;
+    public ReifiedArray(int size) {
+        T[] values = new T[size];
+        this.values = values;
+    }
+
+    public T[] values() {
+        return values;
+    }
+}
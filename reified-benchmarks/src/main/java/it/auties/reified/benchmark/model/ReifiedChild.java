@@ -0,0 +1,8 @@
+package it.auties.reified.benchmark.model;
+
+// Receives String.class in its super call
+public class ReifiedChild extends ReifiedSingle<String> {
+    public ReifiedChild(String value) {
+        super(value);
+    }
+}
@@ -0,0 +1,28 @@
+package it.auties.reified.benchmark.model;
+
+import it.auties.reified.annotation.Reified;
+
+public class ReifiedPair<@Reified K, @Reified V> {
+    private final K key;
+    private final V value;
+    public ReifiedPair(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public K key() {
+        return key;
+    }
+
+    public V value() {
+        return value;
+    }
+
+    public Class<?> keyType() {
+        return K;
+    }
+
+    public Class<?> valueType() {
+        return V;
+    }
+}
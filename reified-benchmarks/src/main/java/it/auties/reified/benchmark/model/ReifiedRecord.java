@@ -0,0 +1,16 @@
+package it.auties.reified.benchmark.model;
+
+import it.auties.reified.annotation.Reified;
+
+import java.util.Objects;
+
+// The compact constructor is rewritten to receive the class
+public record ReifiedRecord<@Reified T>(T value) {
+    public ReifiedRecord {
+        Objects.requireNonNull(value, "Cannot create record: value cannot be null");
+    }
+
+    public Class<?> type() {
+        return T;
+    }
+}
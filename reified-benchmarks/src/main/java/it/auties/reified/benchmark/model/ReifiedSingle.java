@@ -0,0 +1,18 @@
+package it.auties.reified.benchmark.model;
+
+import it.auties.reified.annotation.Reified;
+
+public class ReifiedSingle<@Reified T> {
+    private final T value;
+    public ReifiedSingle(T value) {
+        this.value = value;
+    }
+
+    public T value() {
+        return value;
+    }
+
+    public Class<?> type() {
+        return T;
+    }
+}
@@ -11,15 +11,18 @@ public class ReifiedCall {
     private final JCTree.JCClassDecl enclosingClass;
     private final JCTree.JCMethodDecl enclosingMethod;
     private final JCTree.JCStatement enclosingStatement;
+    private final JCTree.JCLambda enclosingLambda;
     private Type reifiedType;
+    private String fallbackReason;
 
-    public ReifiedCall(Symbol.TypeVariableSymbol typeVariable, JCTree.JCPolyExpression invocation, Symbol.MethodSymbol invoked, JCTree.JCClassDecl enclosingClass, JCTree.JCMethodDecl enclosingMethod, JCTree.JCStatement enclosingStatement) {
+    public ReifiedCall(Symbol.TypeVariableSymbol typeVariable, JCTree.JCPolyExpression invocation, Symbol.MethodSymbol invoked, JCTree.JCClassDecl enclosingClass, JCTree.JCMethodDecl enclosingMethod, JCTree.JCStatement enclosingStatement, JCTree.JCLambda enclosingLambda) {
         this.typeVariable = typeVariable;
         this.invocation = invocation;
         this.invoked = invoked;
         this.enclosingClass = enclosingClass;
         this.enclosingMethod = enclosingMethod;
         this.enclosingStatement = enclosingStatement;
+        this.enclosingLambda = enclosingLambda;
     }
 
     public Symbol.TypeVariableSymbol typeVariable() {
@@ -46,6 +49,10 @@ public class ReifiedCall {
         return enclosingStatement;
     }
 
+    public JCTree.JCLambda enclosingLambda() {
+        return enclosingLambda;
+    }
+
     public Type reifiedType() {
         return reifiedType;
     }
@@ -53,4 +60,13 @@ public class ReifiedCall {
     public void setReifiedType(Type reifiedType) {
         this.reifiedType = reifiedType;
     }
+
+    // Why the reified type is the erased bound of the type variable, null if it was inferred
+    public String fallbackReason() {
+        return fallbackReason;
+    }
+
+    public void setFallbackReason(String fallbackReason) {
+        this.fallbackReason = fallbackReason;
+    }
 }
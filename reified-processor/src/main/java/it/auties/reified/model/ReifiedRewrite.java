@@ -0,0 +1,53 @@
+package it.auties.reified.model;
+
+import com.sun.tools.javac.tree.JCTree;
+
+// A rewrite of a compilation unit that doesn't declare any reified type parameter, as stored by the plan cache:
+// a class literal prepended to the arguments of an invocation or to the super call of a child class.
+// The tree is identified by its position and tag, the literal by the canonical name of its class and the number of dimensions of its array.
+public class ReifiedRewrite {
+    private final Kind kind;
+    private final int position;
+    private final JCTree.Tag tag;
+    private final String declaration;
+    private final String typeName;
+    private final int dimensions;
+
+    public ReifiedRewrite(Kind kind, int position, JCTree.Tag tag, String declaration, String typeName, int dimensions) {
+        this.kind = kind;
+        this.position = position;
+        this.tag = tag;
+        this.declaration = declaration;
+        this.typeName = typeName;
+        this.dimensions = dimensions;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public JCTree.Tag tag() {
+        return tag;
+    }
+
+    public String declaration() {
+        return declaration;
+    }
+
+    public String typeName() {
+        return typeName;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public enum Kind {
+        INVOCATION,
+        SUPER_CALL
+    }
+}
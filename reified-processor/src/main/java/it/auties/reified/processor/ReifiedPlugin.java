@@ -0,0 +1,147 @@
+package it.auties.reified.processor;
+
+import com.google.auto.service.AutoService;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Plugin;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.code.Symtab;
+import com.sun.tools.javac.comp.ArgumentAttr;
+import com.sun.tools.javac.comp.Check;
+import com.sun.tools.javac.comp.Todo;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.List;
+import it.auties.reified.scanner.ReattributionScanner;
+import it.auties.reified.util.DiagnosticHandlerWorker;
+import it.auties.reified.util.IllegalReflection;
+import it.auties.reified.util.UnboundShorthandChecker;
+
+import javax.tools.JavaFileObject;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Alternative entry point to ReifiedProcessor: -Xplugin:Reified
+// The processor runs inside the annotation processing rounds, after which javac enters and attributes every compilation unit again.
+// The plugin instead runs once, right before javac attributes the first class, and only hands back to javac the compilation units that were rewritten.
+// Every other unit keeps the attribution computed while looking up reified calls.
+@AutoService(Plugin.class)
+public class ReifiedPlugin implements Plugin, TaskListener {
+    static {
+        IllegalReflection.openJavac();
+    }
+
+    private static final String NAME = "Reified";
+
+    private Context context;
+    private Map<String, String> options;
+    private boolean processed;
+
+    public static boolean isRegistered(Context context) {
+        return context.get(ReifiedPlugin.class) != null;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(JavacTask task, String... args) {
+        this.context = ((BasicJavacTask) task).getContext();
+        this.options = parseOptions(args);
+        context.put(ReifiedPlugin.class, this);
+        task.addTaskListener(this);
+        UnboundShorthandChecker.register(context);
+    }
+
+    private Map<String, String> parseOptions(String... args) {
+        return Arrays.stream(args)
+                .map(arg -> arg.split("=", 2))
+                .collect(Collectors.toUnmodifiableMap(entry -> entry[0], entry -> entry.length == 1 ? "true" : entry[1], (first, second) -> second));
+    }
+
+    @Override
+    public void started(TaskEvent event) {
+        if (processed || event.getKind() != TaskEvent.Kind.ANALYZE) {
+            return;
+        }
+
+        try {
+            this.processed = true;
+            processing((JCTree.JCCompilationUnit) event.getCompilationUnit());
+        } catch (Throwable ex) {
+            throw new RuntimeException("An exception occurred while compiling using reified", ex);
+        }
+    }
+
+    private void processing(JCTree.JCCompilationUnit analyzed) {
+        var diagnosticHandlerWorker = new DiagnosticHandlerWorker(context);
+        var reifiedWorker = new ReifiedWorker(context, JavacProcessingEnvironment.instance(context), options);
+        var roots = findCompilationUnits(analyzed);
+        diagnosticHandlerWorker.useCachedHandler();
+        try {
+            reifiedWorker.process(reifiedWorker.findCandidates(roots), roots);
+        } finally {
+            diagnosticHandlerWorker.useJavacHandler();
+        }
+
+        var rewrittenUnits = reifiedWorker.rewrittenUnits();
+        if (!rewrittenUnits.isEmpty()) {
+            var reattributionScanner = new ReattributionScanner(Check.instance(context), Symtab.instance(context));
+            rewrittenUnits.forEach(reattributionScanner::reset);
+            clearArgumentTypeCache();
+        }
+
+        diagnosticHandlerWorker.reportErrors(findSources(rewrittenUnits));
+        reifiedWorker.reportDiagnostics();
+    }
+
+    // javac processes the attribution queue while firing the analyze event, so the unit being analyzed has already been removed from it
+    private List<JCTree.JCClassDecl> findCompilationUnits(JCTree.JCCompilationUnit analyzed) {
+        var todo = Todo.instance(context);
+        return Stream.concat(Stream.of(analyzed), todo.stream().map(env -> env.toplevel))
+                .distinct()
+                .flatMap(unit -> unit.getTypeDecls().stream())
+                .filter(tree -> tree instanceof JCTree.JCClassDecl)
+                .map(tree -> (JCTree.JCClassDecl) tree)
+                .filter(tree -> tree.sym != null)
+                .collect(List.collector());
+    }
+
+    private Set<JavaFileObject> findSources(Set<JCTree.JCCompilationUnit> units) {
+        return units.stream()
+                .map(unit -> unit.sourcefile)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Argument types are cached by position, the rewritten units must not reuse the ones computed before the rewrite.
+    // The cache belongs to the ArgumentAttr of this compilation, only the opened field is shared.
+    private void clearArgumentTypeCache() {
+        try {
+            var argumentAttr = ArgumentAttr.instance(context);
+            var cache = (Map<?, ?>) ArgumentTypeCache.FIELD.get(argumentAttr);
+            cache.clear();
+        } catch (ReflectiveOperationException exception) {
+            throw new RuntimeException("Cannot clear argument type cache", exception);
+        }
+    }
+
+    private static final class ArgumentTypeCache {
+        private static final Field FIELD = findField();
+
+        private static Field findField() {
+            try {
+                return IllegalReflection.open(ArgumentAttr.class.getDeclaredField("argumentTypeCache"));
+            } catch (NoSuchFieldException exception) {
+                throw new RuntimeException("Cannot find argument type cache", exception);
+            }
+        }
+    }
+}
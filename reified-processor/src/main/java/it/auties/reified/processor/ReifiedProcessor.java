@@ -0,0 +1,148 @@
+package it.auties.reified.processor;
+
+import com.google.auto.service.AutoService;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.api.JavacTrees;
+import com.sun.tools.javac.api.MultiTaskListener;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.comp.Todo;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.List;
+import it.auties.reified.annotation.Reified;
+import it.auties.reified.model.ReifiedCandidate;
+import it.auties.reified.simplified.SimpleContext;
+import it.auties.reified.util.DiagnosticHandlerWorker;
+import it.auties.reified.util.IllegalReflection;
+import it.auties.reified.util.UnboundShorthandChecker;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import java.util.HashSet;
+import java.util.Set;
+
+// javac only calls the processor in the rounds that declare reified type parameters and in the ones after them.
+// The runtime collections and registries are bound even if the compilation doesn't declare any reified type parameter,
+// so the units that the processor wasn't called for are processed once their round is over.
+@SupportedAnnotationTypes(Reified.PATH)
+@SupportedSourceVersion(SourceVersion.RELEASE_11)
+@SupportedOptions({"reified.debug", "reified.stats", "reified.inline.limit", "reified.include", "reified.exclude", "reified.skipGenerated", "reified.index", "reified.reflectConfig", "reified.classList", "reified.cache", "reified.transient", "reified.sources", "reified.profile", "reified.fallbacks", "reified.skipUnused"})
+@AutoService(Processor.class)
+public class ReifiedProcessor extends AbstractProcessor implements TaskListener {
+    static {
+        IllegalReflection.openJavac();
+    }
+
+    private Context context;
+    private Trees trees;
+    private RoundEnvironment environment;
+    private Set<JCTree.JCClassDecl> processedRoots;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.context = SimpleContext.resolveContext(processingEnv);
+        this.trees = JavacTrees.instance(context);
+        this.processedRoots = new HashSet<>();
+        UnboundShorthandChecker.register(context);
+        MultiTaskListener.instance(context).add(this);
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        try {
+            if(ReifiedPlugin.isRegistered(context)){
+                return false;
+            }
+
+            this.environment = roundEnv;
+            processing(findAnnotatedTrees(), findCompilationUnits());
+            return true;
+        } catch (Throwable ex) {
+            throw new RuntimeException("An exception occurred while compiling using reified", ex);
+        }
+    }
+
+    // The first round is never the last one, and javac cleans and enters every unit again before the next round like it does for the ones that the processor rewrites
+    @Override
+    public void finished(TaskEvent event) {
+        if (event.getKind() != TaskEvent.Kind.ANNOTATION_PROCESSING_ROUND || ReifiedPlugin.isRegistered(context)) {
+            return;
+        }
+
+        var roots = Todo.instance(context)
+                .stream()
+                .map(env -> env.toplevel)
+                .distinct()
+                .flatMap(unit -> unit.getTypeDecls().stream())
+                .filter(tree -> tree instanceof JCTree.JCClassDecl)
+                .map(tree -> (JCTree.JCClassDecl) tree)
+                .filter(tree -> tree.sym != null && !processedRoots.contains(tree))
+                .collect(List.collector());
+        if (roots.isEmpty()) {
+            return;
+        }
+
+        try {
+            processing(List.nil(), roots);
+        } catch (Throwable ex) {
+            throw new RuntimeException("An exception occurred while compiling using reified", ex);
+        }
+    }
+
+    private List<ReifiedCandidate> findAnnotatedTrees() {
+        return environment.getElementsAnnotatedWith(Reified.class)
+                .stream()
+                .map(this::findAnnotatedTree)
+                .collect(List.collector())
+                .reverse();
+    }
+
+    private ReifiedCandidate findAnnotatedTree(Element element) {
+        var typeVariable = (Symbol.TypeVariableSymbol) element;
+        var owner = typeVariable.getEnclosingElement();
+        if(owner instanceof Symbol.ClassSymbol){
+            var classSymbol = (Symbol.ClassSymbol) owner;
+            var classPath = trees.getPath(classSymbol);
+            return new ReifiedCandidate(typeVariable, (JCTree.JCClassDecl) classPath.getLeaf(), null);
+        }
+
+        if(owner instanceof Symbol.MethodSymbol){
+            var methodSymbol = (Symbol.MethodSymbol) owner;
+            var enclosingClassSymbol = (Symbol.ClassSymbol) methodSymbol.getEnclosingElement();
+            var enclosingClassPath = trees.getPath(enclosingClassSymbol);
+            var methodPath = trees.getPath(methodSymbol);
+            return new ReifiedCandidate(typeVariable, (JCTree.JCClassDecl) enclosingClassPath.getLeaf(), (JCTree.JCMethodDecl) methodPath.getLeaf());
+        }
+
+        throw new IllegalArgumentException("Cannot find annotated tree, unknown owner: " + owner.getClass().getName());
+    }
+
+    private void processing(List<ReifiedCandidate> candidates, List<JCTree.JCClassDecl> roots) {
+        processedRoots.addAll(roots);
+        var diagnosticHandlerWorker = new DiagnosticHandlerWorker(context);
+        var reifiedWorker = new ReifiedWorker(context, processingEnv, processingEnv.getOptions());
+        diagnosticHandlerWorker.useCachedHandler();
+        try {
+            reifiedWorker.process(candidates, roots);
+        } finally {
+            diagnosticHandlerWorker.useJavacHandler();
+        }
+
+        diagnosticHandlerWorker.reportErrors();
+        reifiedWorker.reportDiagnostics();
+    }
+
+    private List<JCTree.JCClassDecl> findCompilationUnits() {
+        return environment.getRootElements()
+                .stream()
+                .map(trees::getTree)
+                .filter(tree -> tree instanceof JCTree.JCClassDecl)
+                .map(tree -> (JCTree.JCClassDecl) tree)
+                .collect(List.collector());
+    }
+}
@@ -0,0 +1,798 @@
+package it.auties.reified.processor;
+
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symtab;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.Types;
+import com.sun.tools.javac.comp.*;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Log;
+import com.sun.tools.javac.util.Names;
+import it.auties.reified.model.ReifiedArrayInitialization;
+import it.auties.reified.model.ReifiedCall;
+import it.auties.reified.model.ReifiedCandidate;
+import it.auties.reified.model.ReifiedDeclaration;
+import it.auties.reified.model.ReifiedRewrite;
+import it.auties.reified.scanner.ArrayInitializationScanner;
+import it.auties.reified.scanner.CacheInvocationScanner;
+import it.auties.reified.scanner.ClassInitializationScanner;
+import it.auties.reified.scanner.ExtendedClassesScanner;
+import it.auties.reified.scanner.MethodInvocationScanner;
+import it.auties.reified.scanner.ParameterUsageScanner;
+import it.auties.reified.scanner.RegistryInvocationScanner;
+import it.auties.reified.scanner.RewriteTargetScanner;
+import it.auties.reified.scanner.RuntimeInitializationScanner;
+import it.auties.reified.scanner.TypeParameterScanner;
+import it.auties.reified.simplified.SimpleClasses;
+import it.auties.reified.simplified.SimpleInliner;
+import it.auties.reified.simplified.SimpleMaker;
+import it.auties.reified.simplified.SimpleOrdinals;
+import it.auties.reified.simplified.SimpleProfiler;
+import it.auties.reified.simplified.SimpleReferences;
+import it.auties.reified.simplified.SimpleRegistry;
+import it.auties.reified.simplified.SimpleSerialization;
+import it.auties.reified.simplified.SimpleTypes;
+import it.auties.reified.util.CompilationUnitFilter;
+import it.auties.reified.util.ReifiedFallbacks;
+import it.auties.reified.util.ReifiedPlanCache;
+import it.auties.reified.util.ReifiedSourceWriter;
+import it.auties.reified.util.ReifiedStats;
+import it.auties.reified.util.ReifiedTypeIndex;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.lang.Boolean.parseBoolean;
+
+public class ReifiedWorker {
+    private static final int DEFAULT_INLINE_LIMIT = 32;
+    private final SimpleTypes simpleTypes;
+    private final SimpleClasses simpleClasses;
+    private final SimpleMaker simpleMaker;
+    private final SimpleInliner simpleInliner;
+    private final SimpleRegistry simpleRegistry;
+    private final SimpleReferences simpleReferences;
+    private final SimpleOrdinals simpleOrdinals;
+    private final SimpleProfiler simpleProfiler;
+    private final Map<String, String> options;
+    private final Set<JCTree.JCCompilationUnit> rewrittenUnits;
+    private final CompilationUnitFilter compilationUnitFilter;
+    private final Map<JCTree.JCCompilationUnit, Boolean> checkedUnits;
+    private final Set<JCTree.JCCompilationUnit> excludedUnits;
+    private final Set<JCTree.JCCompilationUnit> generatedUnits;
+    private final ReifiedStats stats;
+    private final ReifiedTypeIndex typeIndex;
+    private final ReifiedPlanCache planCache;
+    private final ReifiedSourceWriter sourceWriter;
+    private final ReifiedFallbacks fallbacks;
+    private final Map<JCTree.JCCompilationUnit, String> unitKeys;
+    private final Map<JCTree.JCCompilationUnit, java.util.List<ReifiedRewrite>> cachedPlans;
+    private final Map<JCTree.JCCompilationUnit, ListBuffer<ReifiedRewrite>> recordedPlans;
+    private final Set<JCTree.JCCompilationUnit> uncacheableUnits;
+    private final boolean skipUnused;
+    private List<JCTree.JCClassDecl> roots;
+    private List<JCTree.JCClassDecl> compilationUnits;
+    private List<ReifiedDeclaration> reifiedDeclarations;
+    private ListBuffer<ReifiedCall> reifiedResults;
+    private ListBuffer<ReifiedCall> registryCalls;
+    private Set<Symbol.TypeVariableSymbol> propagatedParameters;
+    private Map<Symbol.TypeVariableSymbol, ReifiedDeclaration> unusedDeclarations;
+    private Map<Symbol.TypeVariableSymbol, ListBuffer<ReifiedCall>> unusedCalls;
+
+    public ReifiedWorker(Context context, ProcessingEnvironment processingEnv, Map<String, String> options) {
+        var attr = Attr.instance(context);
+        var enter = Enter.instance(context);
+        var types = Types.instance(context);
+        var treeMaker = TreeMaker.instance(context);
+        var memberEnter = MemberEnter.instance(context);
+
+        this.stats = new ReifiedStats();
+        this.simpleTypes = new SimpleTypes(processingEnv, types, attr, enter, memberEnter, stats);
+        this.simpleClasses = new SimpleClasses(simpleTypes);
+        var simpleSerialization = new SimpleSerialization(treeMaker, Symtab.instance(context), Names.instance(context), simpleTypes, parseBoolean(options.get("reified.transient")));
+        this.simpleMaker = new SimpleMaker(treeMaker, Symtab.instance(context), Names.instance(context), simpleTypes, simpleSerialization);
+        this.simpleInliner = new SimpleInliner(treeMaker, Resolve.instance(context), simpleTypes, parseInlineLimit(options));
+        this.simpleRegistry = new SimpleRegistry(treeMaker, Resolve.instance(context), Names.instance(context), simpleTypes);
+        this.simpleReferences = new SimpleReferences(treeMaker, Names.instance(context), Log.instance(context), simpleTypes);
+        this.simpleOrdinals = new SimpleOrdinals(treeMaker, Names.instance(context), simpleTypes, simpleMaker);
+        this.simpleProfiler = new SimpleProfiler(treeMaker, Names.instance(context), simpleTypes, parseBoolean(options.get("reified.profile")));
+        this.options = options;
+        this.rewrittenUnits = new LinkedHashSet<>();
+        this.compilationUnitFilter = new CompilationUnitFilter(options);
+        this.checkedUnits = new HashMap<>();
+        this.excludedUnits = new LinkedHashSet<>();
+        this.generatedUnits = new LinkedHashSet<>();
+        this.typeIndex = ReifiedTypeIndex.instance(context, options);
+        this.planCache = ReifiedPlanCache.instance(context, options);
+        this.sourceWriter = ReifiedSourceWriter.instance(context, options);
+        this.fallbacks = new ReifiedFallbacks(context, options);
+        this.unitKeys = new HashMap<>();
+        this.cachedPlans = new LinkedHashMap<>();
+        this.recordedPlans = new HashMap<>();
+        this.uncacheableUnits = new HashSet<>();
+        this.skipUnused = !"false".equalsIgnoreCase(options.get("reified.skipUnused"));
+    }
+
+    private int parseInlineLimit(Map<String, String> options) {
+        var limit = options.get("reified.inline.limit");
+        if (limit == null) {
+            return DEFAULT_INLINE_LIMIT;
+        }
+
+        try {
+            return Integer.parseInt(limit);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Cannot parse inline limit, expected a number: " + limit, exception);
+        }
+    }
+
+    public void process(List<ReifiedCandidate> candidates, List<JCTree.JCClassDecl> roots) {
+        var includedRoots = filterCompilationUnits(roots);
+        var includedCandidates = candidates.stream()
+                .filter(candidate -> !isSkipped(candidate.enclosingClass()))
+                .collect(List.collector());
+        if (includedRoots.isEmpty() && includedCandidates.isEmpty()) {
+            typeIndex.write();
+            writeSources(roots);
+            printStats();
+            return;
+        }
+
+        findCachedPlans(includedRoots, includedCandidates);
+        this.roots = includedRoots;
+        this.compilationUnits = includedRoots.stream()
+                .filter(root -> !cachedPlans.containsKey(findUnit(root)))
+                .collect(List.collector());
+        this.reifiedDeclarations = parseCandidates(includedCandidates);
+        this.reifiedResults = new ListBuffer<>();
+        this.registryCalls = new ListBuffer<>();
+        this.propagatedParameters = new HashSet<>();
+        this.unusedDeclarations = new LinkedHashMap<>();
+        this.unusedCalls = new HashMap<>();
+        reifiedDeclarations.forEach(this::processTypeParameter);
+        processRuntimeInitializations();
+        processRegistryInvocations();
+        findUnusedDeclarations();
+        reifiedDeclarations.stream()
+                .filter(declaration -> !unusedDeclarations.containsKey(declaration.typeParameter()))
+                .forEach(this::processMembers);
+        reifiedDeclarations.forEach(this::processCacheInvocations);
+        applyParameters();
+        simpleReferences.replace();
+        registryCalls.forEach(this::bindRegistryInvocation);
+        reifiedDeclarations.forEach(this::processArrayInitializations);
+        cachedPlans.forEach(this::replayPlan);
+        storePlans();
+        typeIndex.write();
+        writeSources(roots);
+        debug();
+        printStats();
+    }
+
+    public List<ReifiedCandidate> findCandidates(List<JCTree.JCClassDecl> roots) {
+        return new TypeParameterScanner(simpleTypes)
+                .scan(filterCompilationUnits(roots))
+                .reverse();
+    }
+
+    private List<JCTree.JCClassDecl> filterCompilationUnits(List<JCTree.JCClassDecl> roots) {
+        return roots.stream()
+                .filter(root -> !isSkipped(root))
+                .collect(List.collector());
+    }
+
+    private boolean isSkipped(JCTree.JCClassDecl clazz) {
+        var env = simpleTypes.findClassEnv(clazz);
+        if (env == null) {
+            return false;
+        }
+
+        return checkedUnits.computeIfAbsent(env.toplevel, this::isSkipped);
+    }
+
+    private boolean isSkipped(JCTree.JCCompilationUnit unit) {
+        if (compilationUnitFilter.excluded(unit)) {
+            excludedUnits.add(unit);
+            return true;
+        }
+
+        if (compilationUnitFilter.generated(unit)) {
+            generatedUnits.add(unit);
+            return true;
+        }
+
+        return false;
+    }
+
+    public Set<JCTree.JCCompilationUnit> rewrittenUnits() {
+        return rewrittenUnits;
+    }
+
+    // Called once javac's diagnostic handler is restored, as the diagnostics of the rewritten units that are cached by reified are discarded
+    public void reportDiagnostics() {
+        simpleReferences.report();
+        fallbacks.report();
+    }
+
+    private List<ReifiedDeclaration> parseCandidates(List<ReifiedCandidate> candidates) {
+        return candidates.stream()
+                .map(this::parseCandidate)
+                .collect(List.collector());
+    }
+
+    private ReifiedDeclaration parseCandidate(ReifiedCandidate candidate) {
+        return new ReifiedDeclaration(
+                candidate.typeVariable(),
+                candidate.enclosingClass(),
+                simpleClasses.findRealAccess(candidate.enclosingClass(), candidate.enclosingMethod()),
+                findMembers(candidate),
+                candidate.hasClass()
+        );
+    }
+
+    private List<JCTree.JCMethodDecl> findMembers(ReifiedCandidate candidate) {
+        if (!candidate.hasClass()) {
+            return List.of(candidate.enclosingMethod());
+        }
+
+        return simpleClasses.findConstructors(candidate.enclosingClass());
+    }
+
+    private void processMembers(ReifiedDeclaration reifiedDeclaration) {
+        markRewritten(reifiedDeclaration.enclosingClass());
+        markUncacheable(reifiedDeclaration.enclosingClass());
+        simpleOrdinals.processMembers(reifiedDeclaration);
+        simpleMaker.processMembers(reifiedDeclaration);
+    }
+
+    // A private method that doesn't use the class of its type parameter isn't passed it, as no other method can depend on its signature.
+    // Its parameter is only added if one of its invocations of a reified method is rewritten, as the class is then passed along to that method.
+    // A private method can only be invoked by its own compilation unit, which declares a reified type parameter and is never cached:
+    // whether the parameter is skipped depends on the body of the method, but it cannot change the plan of another unit or the binary signature seen by other classes.
+    private void findUnusedDeclarations() {
+        if (!skipUnused) {
+            return;
+        }
+
+        var skippable = reifiedDeclarations.stream()
+                .filter(this::isSkippable)
+                .collect(Collectors.toMap(ReifiedDeclaration::typeParameter, declaration -> declaration));
+        skippable.values()
+                .stream()
+                .filter(declaration -> !isUsed(declaration))
+                .forEach(declaration -> unusedDeclarations.put(declaration.typeParameter(), declaration));
+        var calls = reifiedResults.toList();
+        reifiedResults.clear();
+        for (var call : calls) {
+            if (unusedDeclarations.containsKey(call.typeVariable())) {
+                unusedCalls.computeIfAbsent(call.typeVariable(), ignored -> new ListBuffer<>()).add(call);
+            } else {
+                reifiedResults.add(call);
+            }
+        }
+    }
+
+    private boolean isSkippable(ReifiedDeclaration declaration) {
+        if (declaration.isClass() || simpleTypes.inline(declaration.typeParameter())) {
+            return false;
+        }
+
+        var method = declaration.methods().head;
+        return method.body != null
+                && !method.sym.isConstructor()
+                && (method.mods.flags & Flags.PRIVATE) != 0;
+    }
+
+    private boolean isUsed(ReifiedDeclaration declaration) {
+        return new ParameterUsageScanner(declaration.typeParameter().name).scan(declaration.methods().head.body)
+                || !new CacheInvocationScanner(declaration, simpleClasses, simpleTypes).scan(declaration.enclosingClass()).isEmpty();
+    }
+
+    // Applying a parameter can revive an unused declaration, whose invocations are then appended
+    private void applyParameters() {
+        while (reifiedResults.nonEmpty()) {
+            applyParameter(reifiedResults.next());
+        }
+
+        stats.set("Skipped unused parameters", unusedDeclarations.size());
+        unusedDeclarations.keySet().forEach(typeParameter -> stats.addDetail("Skipped unused parameters", typeIndex.findDeclarationName(typeParameter)));
+    }
+
+    private void reviveDeclaration(ReifiedDeclaration declaration) {
+        unusedDeclarations.remove(declaration.typeParameter());
+        processMembers(declaration);
+        var calls = unusedCalls.remove(declaration.typeParameter());
+        if (calls != null) {
+            reifiedResults.addAll(calls);
+        }
+    }
+
+    private void applyParameter(ReifiedCall call) {
+        reportFallback(call);
+        markRewritten(call.enclosingClass());
+        typeIndex.add(call.typeVariable(), call.reifiedType());
+        if (call.invocation().hasTag(JCTree.Tag.REFERENCE)) {
+            applyReference(call);
+            return;
+        }
+
+        if (inline(call)) {
+            markUncacheable(call.enclosingClass());
+            stats.increment("Inlined invocations");
+            return;
+        }
+
+        stats.increment("Rewritten invocations");
+        recordRewrite(ReifiedRewrite.Kind.INVOCATION, call.invocation(), call.enclosingClass(), call.typeVariable(), call.reifiedType());
+        var literal = profile(call, createClassLiteral(call.reifiedType(), call.enclosingClass(), call.enclosingMethod()));
+        prependArguments(call.invocation(), createOrdinals(call).prepend(literal));
+    }
+
+    // The lambda that replaces the reference isn't cached, as the reference's position is the one of the lambda and of its invocation
+    private void applyReference(ReifiedCall call) {
+        markUncacheable(call.enclosingClass());
+        var reference = (JCTree.JCMemberReference) call.invocation();
+        var scope = call.enclosingMethod() != null ? call.enclosingMethod() : call.enclosingClass();
+        var invocation = simpleReferences.findOrCreate(findUnit(call.enclosingClass()), scope, reference).orElse(null);
+        if (invocation == null) {
+            return;
+        }
+
+        stats.increment("Rewritten method references");
+        var literal = createClassLiteral(call.reifiedType(), call.enclosingClass(), call.enclosingMethod());
+        literal.pos = reference.pos;
+        invocation.args = invocation.args.prependList(createOrdinals(call).prepend(profile(call, literal)));
+    }
+
+    // A replayed rewrite only passes the class, so the profiled sites aren't cached
+    private JCTree.JCExpression profile(ReifiedCall call, JCTree.JCExpression literal) {
+        if (!simpleProfiler.enabled()) {
+            return literal;
+        }
+
+        markUncacheable(call.enclosingClass());
+        stats.increment("Profiled call sites");
+        return simpleProfiler.profile(findUnit(call.enclosingClass()), call.enclosingClass(), call.invocation(), typeIndex.findDeclarationName(call.typeVariable()), call.reifiedType(), literal);
+    }
+
+    // The ordinals of a type variable are computed from the class that is passed for it, so the invocation can't be replayed
+    private List<JCTree.JCExpression> createOrdinals(ReifiedCall call) {
+        var ordinals = simpleOrdinals.createArguments(call.typeVariable(), call.reifiedType(), () -> createClassLiteral(call.reifiedType(), call.enclosingClass(), call.enclosingMethod()));
+        if (ordinals.isEmpty()) {
+            return ordinals;
+        }
+
+        markUncacheable(call.enclosingClass());
+        stats.add(simpleTypes.generic(call.reifiedType()) ? "Runtime type ordinals" : "Constant type ordinals", ordinals.size());
+        return ordinals;
+    }
+
+    private void prependArguments(JCTree.JCPolyExpression invocation, List<JCTree.JCExpression> arguments) {
+        switch (invocation.getTag()) {
+            case NEWCLASS:
+                var newClass = (JCTree.JCNewClass) invocation;
+                newClass.args = newClass.args.prependList(arguments);
+                break;
+            case APPLY:
+                var methodInv = (JCTree.JCMethodInvocation) invocation;
+                methodInv.args = methodInv.args.prependList(arguments);
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot apply parameter to unknown tag: " + invocation.getTag().name());
+        }
+    }
+
+    // The types of every runtime collection are inferred before any of them is applied, as the inference reads the arguments of the initialization.
+    // Each type is prepended to the arguments, so the last type parameter is applied first.
+    private void processRuntimeInitializations() {
+        var runtimeScanner = new RuntimeInitializationScanner(simpleClasses, simpleTypes);
+        compilationUnits.stream()
+                .map(runtimeScanner::scan)
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparingInt(this::findTypeParameterIndex).reversed())
+                .peek(this::inferReifiedType)
+                .peek(runtimeInit -> stats.increment("Runtime collection types"))
+                .forEach(reifiedResults::add);
+    }
+
+    private void processRegistryInvocations() {
+        var registryScanner = new RegistryInvocationScanner(simpleClasses, simpleTypes);
+        compilationUnits.stream()
+                .map(registryScanner::scan)
+                .flatMap(Collection::stream)
+                .peek(this::inferReifiedType)
+                .forEach(registryCalls::add);
+    }
+
+    // The implementations are only known at compile time if the type is: an invocation whose type is a type variable isn't bound,
+    // so it's reported by UnboundShorthandChecker
+    private void bindRegistryInvocation(ReifiedCall call) {
+        if (!(simpleTypes.erase(call.reifiedType()).tsym instanceof Symbol.ClassSymbol) || simpleTypes.generic(call.reifiedType())) {
+            return;
+        }
+
+        reportFallback(call);
+        markRewritten(call.enclosingClass());
+        markUncacheable(call.enclosingClass());
+        typeIndex.add(call.typeVariable(), call.reifiedType());
+        stats.increment("Registry invocations");
+        var unit = findUnit(call.enclosingClass());
+        var outermostClass = call.enclosingClass().sym.outermostClass();
+        var topLevelClass = unit.getTypeDecls()
+                .stream()
+                .filter(tree -> tree instanceof JCTree.JCClassDecl && ((JCTree.JCClassDecl) tree).sym == outermostClass)
+                .map(tree -> (JCTree.JCClassDecl) tree)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Cannot bind ReifiedRegistry, missing top level class: " + outermostClass));
+        var registry = simpleRegistry.findOrCreate(topLevelClass, call.reifiedType(), roots);
+        var methodInv = (JCTree.JCMethodInvocation) call.invocation();
+        registry.pos = methodInv.pos;
+        methodInv.args = methodInv.args.prepend(registry);
+    }
+
+    private int findTypeParameterIndex(ReifiedCall call) {
+        return call.invoked().enclClass().getTypeParameters().indexOf(call.typeVariable());
+    }
+
+    // Runs before the invocations are processed, so that the bound invocations are copied with their class if their method is inlined
+    private void processCacheInvocations(ReifiedDeclaration reifiedDeclaration) {
+        new CacheInvocationScanner(reifiedDeclaration, simpleClasses, simpleTypes)
+                .scan(reifiedDeclaration.enclosingClass())
+                .forEach(this::bindCacheInvocation);
+    }
+
+    private void bindCacheInvocation(ReifiedCall call) {
+        markRewritten(call.enclosingClass());
+        markUncacheable(call.enclosingClass());
+        var literal = createClassLiteral(call.typeVariable().asType(), call.enclosingClass(), call.enclosingMethod());
+        var methodInv = (JCTree.JCMethodInvocation) call.invocation();
+        literal.pos = methodInv.pos;
+        methodInv.args = methodInv.args.prepend(literal);
+    }
+
+    private boolean inline(ReifiedCall call) {
+        if (!simpleTypes.inline(call.typeVariable())) {
+            return false;
+        }
+
+        return reifiedDeclarations.stream()
+                .filter(declaration -> declaration.typeParameter() == call.typeVariable())
+                .findFirst()
+                .map(declaration -> simpleInliner.inline(declaration, call))
+                .orElse(false);
+    }
+
+    private void processChildClass(ReifiedDeclaration reifiedDeclaration) {
+        var enclosingClass = reifiedDeclaration.enclosingClass();
+        var childClasses = findChildClasses(enclosingClass);
+        childClasses.forEach(childClass -> processChildClass(reifiedDeclaration, enclosingClass, childClass));
+    }
+
+    private void processChildClass(ReifiedDeclaration reifiedDeclaration, JCTree.JCClassDecl enclosingClass, JCTree.JCClassDecl childClass) {
+        var type = findChildClassType(reifiedDeclaration, enclosingClass, childClass);
+        typeIndex.add(reifiedDeclaration.typeParameter(), type);
+        recordRewrite(ReifiedRewrite.Kind.SUPER_CALL, childClass, childClass, reifiedDeclaration.typeParameter(), type);
+        var literal = createClassLiteral(type, childClass, null);
+        markRewritten(childClass);
+        addSuperParam(childClass, literal);
+    }
+
+    private void addSuperParam(JCTree.JCClassDecl childClass, JCTree.JCExpression literal) {
+        simpleClasses.findConstructors(childClass)
+                .stream()
+                .map(constructor -> constructor.getBody().getStatements())
+                .filter(stats -> !stats.isEmpty())
+                .map(stats -> stats.head)
+                .filter(TreeInfo::isSuperCall)
+                .forEach(superCall -> simpleMaker.addSuperParam(literal, (JCTree.JCExpressionStatement) superCall));
+    }
+
+    private Type findChildClassType(ReifiedDeclaration reifiedDeclaration, JCTree.JCClassDecl enclosingClass, JCTree.JCClassDecl childClass) {
+        var extendClause = childClass.getExtendsClause();
+        switch (extendClause.getTag()) {
+            case IDENT:
+                return simpleTypes.erase(reifiedDeclaration.typeParameter());
+            case TYPEAPPLY:
+                var typeApply = (JCTree.JCTypeApply) extendClause;
+                var types = simpleTypes.eraseTypeVariableFromTypeParameters(reifiedDeclaration.typeParameter(), enclosingClass.sym.getTypeParameters(), typeApply.getTypeArguments(), childClass);
+                return Objects.requireNonNullElse(simpleTypes.commonType(types), simpleTypes.erase(reifiedDeclaration.typeParameter()));
+            default:
+                throw new IllegalArgumentException("Unsupported tag for child class type: " + extendClause.getTag().name());
+        }
+    }
+
+    private List<JCTree.JCClassDecl> findChildClasses(JCTree.JCClassDecl superClass) {
+        var scanner = new ExtendedClassesScanner(superClass, simpleTypes);
+        return compilationUnits.stream()
+                .map(scanner::scan)
+                .flatMap(Collection::stream)
+                .collect(List.collector());
+    }
+
+    private void processTypeParameter(ReifiedDeclaration reifiedDeclaration) {
+        if (!reifiedDeclaration.isClass()) {
+            processMethodParameter(reifiedDeclaration);
+            return;
+        }
+
+        processClassParameter(reifiedDeclaration);
+        processChildClass(reifiedDeclaration);
+    }
+
+    private void processArrayInitializations(ReifiedDeclaration reifiedDeclaration) {
+        var arrayInitializationScanner = new ArrayInitializationScanner(reifiedDeclaration, simpleClasses, simpleTypes);
+        findCompilationUnits(reifiedDeclaration)
+                .stream()
+                .map(arrayInitializationScanner::scan)
+                .flatMap(Collection::stream)
+                .forEach(this::processArrayInitialization);
+    }
+
+    private void processArrayInitialization(ReifiedArrayInitialization array) {
+        markRewritten(array.enclosingClass());
+        markUncacheable(array.enclosingClass());
+        simpleMaker.processArrayInitialization(array);
+    }
+
+    private void processMethodParameter(ReifiedDeclaration reifiedDeclaration) {
+        var methodScanner = new MethodInvocationScanner(reifiedDeclaration, simpleClasses, simpleTypes);
+        findCompilationUnits(reifiedDeclaration)
+                .stream()
+                .map(methodScanner::scan)
+                .flatMap(Collection::stream)
+                .peek(this::inferReifiedType)
+                .forEach(reifiedResults::add);
+    }
+
+    private void processClassParameter(ReifiedDeclaration reifiedDeclaration) {
+        var classScanner = new ClassInitializationScanner(reifiedDeclaration, simpleClasses, simpleTypes);
+        findCompilationUnits(reifiedDeclaration)
+                .stream()
+                .map(classScanner::scan)
+                .flatMap(Collection::stream)
+                .peek(this::inferReifiedType)
+                .forEach(reifiedResults::add);
+    }
+
+    private void inferReifiedType(ReifiedCall call) {
+        call.setReifiedType(simpleTypes.inferReifiedType(call));
+    }
+
+    // Reported when the call is applied, so that the invocations of unused declarations aren't.
+    // A site that is passed the erased bound is scanned again by the next build, so that it's reported again.
+    private void reportFallback(ReifiedCall call) {
+        if (call.fallbackReason() == null) {
+            return;
+        }
+
+        stats.increment("Erased type fallbacks");
+        if (!fallbacks.enabled()) {
+            return;
+        }
+
+        markUncacheable(call.enclosingClass());
+        var declaration = typeIndex.findDeclarationName(call.typeVariable());
+        var message = "Passing " + call.reifiedType() + ", the erased bound of " + call.typeVariable().getSimpleName() + ", to " + declaration + ": " + call.fallbackReason();
+        fallbacks.add(findUnit(call.enclosingClass()), call.invocation(), declaration, message);
+    }
+
+    public JCTree.JCExpression createClassLiteral(Type type, JCTree.JCClassDecl clazz, JCTree.JCMethodDecl method) {
+        if (!simpleTypes.generic(type)) {
+            return simpleMaker.classLiteral(type);
+        }
+
+        var typeSymbol = (Symbol.TypeVariableSymbol) type.asElement().baseSymbol();
+        var unused = unusedDeclarations.get(typeSymbol);
+        if (unused != null) {
+            reviveDeclaration(unused);
+        } else if (!simpleTypes.reified(typeSymbol) && propagatedParameters.add(typeSymbol)) {
+            processTypeParameter(typeSymbol, clazz, method);
+        }
+
+        var name = type.asElement().getSimpleName();
+        var enclosing = typeSymbol.getEnclosingElement();
+        if(enclosing instanceof Symbol.ClassSymbol){
+            return simpleMaker.createGenericClassLiteral(clazz, name);
+        }
+
+        if(enclosing instanceof Symbol.MethodSymbol){
+            return simpleMaker.createGenericMethodLiteral(method, name);
+        }
+
+        throw new IllegalArgumentException("Cannot create class literal, unknown type symbol owner tag: " + enclosing.getClass().getName());
+    }
+
+    private void processTypeParameter(Symbol.TypeVariableSymbol typeSymbol, JCTree.JCClassDecl clazz, JCTree.JCMethodDecl method) {
+        var enclosingMethod = typeSymbol.getEnclosingElement() instanceof Symbol.ClassSymbol ? null : method;
+        var candidate = new ReifiedCandidate(typeSymbol, clazz, enclosingMethod);
+        var declaration = parseCandidate(candidate);
+        processTypeParameter(declaration);
+        processMembers(declaration);
+    }
+
+    private List<JCTree.JCClassDecl> findCompilationUnits(ReifiedDeclaration reifiedDeclaration) {
+        var paramEnv = simpleTypes.findClassEnv(reifiedDeclaration.enclosingClass());
+        return compilationUnits.stream()
+                .filter(unit -> checkClassScope(reifiedDeclaration, paramEnv, simpleTypes.findClassEnv(unit)))
+                .collect(List.collector());
+    }
+
+    private boolean checkClassScope(ReifiedDeclaration reifiedDeclaration, Env<AttrContext> paramEnv, Env<AttrContext> unit) {
+        switch (reifiedDeclaration.modifier()) {
+            case PUBLIC:
+                return true;
+            case PRIVATE:
+                return Objects.equals(unit.toplevel, paramEnv.toplevel);
+            case PROTECTED:
+            case PACKAGE_PRIVATE:
+                return Objects.equals(unit.toplevel.packge, paramEnv.toplevel.packge);
+            default:
+                throw new IllegalArgumentException("Cannot check class scope, unknown modifier: " + reifiedDeclaration.modifier());
+        }
+    }
+
+    private void markRewritten(JCTree.JCClassDecl clazz) {
+        rewrittenUnits.add(findUnit(clazz));
+    }
+
+    private JCTree.JCCompilationUnit findUnit(JCTree.JCClassDecl clazz) {
+        return simpleTypes.findClassEnv(clazz).toplevel;
+    }
+
+    // The units that declare reified type parameters are always processed, as their members are rewritten too
+    private void findCachedPlans(List<JCTree.JCClassDecl> roots, List<ReifiedCandidate> candidates) {
+        if (!planCache.enabled()) {
+            return;
+        }
+
+        var declaringUnits = candidates.stream()
+                .map(candidate -> findUnit(candidate.enclosingClass()))
+                .collect(Collectors.toSet());
+        var units = roots.stream()
+                .map(this::findUnit)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        var fingerprint = planCache.fingerprint(units);
+        units.stream()
+                .filter(unit -> !declaringUnits.contains(unit))
+                .forEach(unit -> findCachedPlan(unit, fingerprint));
+        stats.set("Cached units", cachedPlans.size());
+    }
+
+    private void findCachedPlan(JCTree.JCCompilationUnit unit, String fingerprint) {
+        var key = planCache.key(unit, fingerprint);
+        unitKeys.put(unit, key);
+        planCache.find(key).ifPresent(plan -> cachedPlans.put(unit, plan));
+    }
+
+    // Only the class literals of concrete types can be replayed: a type variable needs the injected parameters of its declaration,
+    // and a plan only stores the name of the erasure, so the cast of a parameterized type couldn't be rebuilt
+    private void recordRewrite(ReifiedRewrite.Kind kind, JCTree tree, JCTree.JCClassDecl enclosingClass, Symbol.TypeVariableSymbol typeVariable, Type type) {
+        if (!planCache.enabled()) {
+            return;
+        }
+
+        var unit = findUnit(enclosingClass);
+        if (simpleTypes.generic(type) || !simpleTypes.erased(type)) {
+            uncacheableUnits.add(unit);
+            return;
+        }
+
+        var erased = simpleTypes.erase(type);
+        var dimensions = 0;
+        while (erased instanceof Type.ArrayType) {
+            erased = ((Type.ArrayType) erased).getComponentType();
+            dimensions++;
+        }
+
+        if (!(erased.tsym instanceof Symbol.ClassSymbol)) {
+            uncacheableUnits.add(unit);
+            return;
+        }
+
+        var rewrite = new ReifiedRewrite(kind, tree.pos, tree.getTag(), typeIndex.findDeclarationName(typeVariable), erased.tsym.getQualifiedName().toString(), dimensions);
+        recordedPlans.computeIfAbsent(unit, ignored -> new ListBuffer<>()).add(rewrite);
+    }
+
+    private void markUncacheable(JCTree.JCClassDecl clazz) {
+        if (planCache.enabled()) {
+            uncacheableUnits.add(findUnit(clazz));
+        }
+    }
+
+    private void replayPlan(JCTree.JCCompilationUnit unit, java.util.List<ReifiedRewrite> plan) {
+        if (plan.isEmpty()) {
+            return;
+        }
+
+        rewrittenUnits.add(unit);
+        var targets = new RewriteTargetScanner(plan).scan(unit);
+        plan.forEach(rewrite -> replayRewrite(unit, rewrite, targets.get(RewriteTargetScanner.toKey(rewrite.position(), rewrite.tag()))));
+    }
+
+    private void replayRewrite(JCTree.JCCompilationUnit unit, ReifiedRewrite rewrite, JCTree target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Cannot replay rewrite, no " + rewrite.tag().name() + " at " + rewrite.position() + " in " + unit.sourcefile.getName());
+        }
+
+        var type = simpleTypes.findType(rewrite.typeName(), rewrite.dimensions())
+                .orElseThrow(() -> new IllegalArgumentException("Cannot replay rewrite, unknown type: " + rewrite.typeName()));
+        typeIndex.add(rewrite.declaration(), type);
+        stats.increment("Replayed rewrites");
+        switch (rewrite.kind()) {
+            case INVOCATION:
+                prependArguments((JCTree.JCPolyExpression) target, List.of(simpleMaker.classLiteral(type)));
+                break;
+            case SUPER_CALL:
+                addSuperParam((JCTree.JCClassDecl) target, simpleMaker.classLiteral(type));
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot replay rewrite, unknown kind: " + rewrite.kind());
+        }
+    }
+
+    private void storePlans() {
+        if (!planCache.enabled()) {
+            return;
+        }
+
+        unitKeys.forEach((unit, key) -> {
+            var cached = cachedPlans.get(unit);
+            if (cached != null) {
+                planCache.put(key, cached);
+            } else if (!uncacheableUnits.contains(unit)) {
+                planCache.put(key, recordedPlans.getOrDefault(unit, new ListBuffer<>()).toList());
+            }
+        });
+        planCache.write();
+    }
+
+    // Every unit is written, including the excluded and generated ones, so that the directory can be compiled on its own
+    private void writeSources(List<JCTree.JCClassDecl> roots) {
+        if (!sourceWriter.enabled()) {
+            return;
+        }
+
+        roots.stream()
+                .map(this::findUnit)
+                .distinct()
+                .filter(unit -> sourceWriter.write(unit, rewrittenUnits.contains(unit)))
+                .forEach(unit -> stats.increment("Written sources"));
+    }
+
+    private void debug(){
+        if(!parseBoolean(options.get("reified.debug"))){
+            return;
+        }
+
+        System.err.println("Reified declarations:");
+        reifiedDeclarations.forEach(System.err::println);
+    }
+
+    private void printStats(){
+        if(!parseBoolean(options.get("reified.stats")) || checkedUnits.isEmpty()){
+            return;
+        }
+
+        stats.set("Compilation units", checkedUnits.size());
+        stats.set("Skipped units (excluded)", excludedUnits.size());
+        stats.set("Skipped units (generated)", generatedUnits.size());
+        stats.set("Reified declarations", reifiedDeclarations == null ? 0 : reifiedDeclarations.size());
+        stats.set("Rewritten units", rewrittenUnits.size());
+        stats.print();
+    }
+}
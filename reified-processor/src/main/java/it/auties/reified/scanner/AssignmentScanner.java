@@ -0,0 +1,60 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+
+// Counts the assignments to a variable after its declaration.
+// javac only knows whether a local variable is effectively final after its flow analysis, which runs after reified.
+public class AssignmentScanner extends TreeScanner<Void, Void> {
+    private final Symbol variable;
+    private int assignments;
+    public AssignmentScanner(Symbol variable) {
+        this.variable = variable;
+    }
+
+    @Override
+    public Void visitAssignment(AssignmentTree node, Void unused) {
+        count(((JCTree.JCAssign) node).lhs);
+        return super.visitAssignment(node, unused);
+    }
+
+    @Override
+    public Void visitCompoundAssignment(CompoundAssignmentTree node, Void unused) {
+        count(((JCTree.JCAssignOp) node).lhs);
+        return super.visitCompoundAssignment(node, unused);
+    }
+
+    @Override
+    public Void visitUnary(UnaryTree node, Void unused) {
+        var rawNode = (JCTree.JCUnary) node;
+        switch (rawNode.getTag()) {
+            case PREINC:
+            case PREDEC:
+            case POSTINC:
+            case POSTDEC:
+                count(rawNode.arg);
+                break;
+            default:
+                break;
+        }
+
+        return super.visitUnary(node, unused);
+    }
+
+    private void count(JCTree.JCExpression target) {
+        if (TreeInfo.symbol(TreeInfo.skipParens(target)) == variable) {
+            assignments++;
+        }
+    }
+
+    public int scan(JCTree tree) {
+        this.assignments = 0;
+        scan(tree, null);
+        return assignments;
+    }
+}
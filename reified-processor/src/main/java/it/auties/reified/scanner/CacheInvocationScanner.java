@@ -0,0 +1,94 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import it.auties.reified.model.ReifiedCall;
+import it.auties.reified.model.ReifiedDeclaration;
+import it.auties.reified.runtime.ReifiedCache;
+import it.auties.reified.simplified.SimpleClasses;
+import it.auties.reified.simplified.SimpleTypes;
+
+// Finds the invocations of ReifiedCache#get() that can be bound to the class injected for a reified type parameter.
+// For methods, the body of the method is scanned. For classes, the instance methods are scanned, excluding the ones that declare their own reified type parameters:
+// field initializers are skipped as they run before the injected field is assigned.
+// An invocation in a member that declares more than one reified type parameter doesn't know which class to use, so it's left unbound and reported by UnboundShorthandChecker.
+public class CacheInvocationScanner extends ReifiedScanner<ReifiedCall> {
+    private static final String SHORTHAND_NAME = "get";
+    private boolean binding;
+    public CacheInvocationScanner(ReifiedDeclaration parameter, SimpleClasses simpleClasses, SimpleTypes simpleTypes) {
+        super(parameter, simpleClasses, simpleTypes);
+    }
+
+    @Override
+    public Void visitClass(ClassTree node, Void unused) {
+        if (node != parameter.enclosingClass() && (!binding || parameter.isClass())) {
+            return null;
+        }
+
+        return super.visitClass(node, unused);
+    }
+
+    @Override
+    public Void visitMethod(MethodTree node, Void unused) {
+        if (binding) {
+            return super.visitMethod(node, unused);
+        }
+
+        var rawNode = (JCTree.JCMethodDecl) node;
+        if (!isBindingMethod(rawNode)) {
+            return null;
+        }
+
+        this.binding = true;
+        super.visitMethod(node, unused);
+        this.binding = false;
+        return null;
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        var rawNode = (JCTree.JCMethodInvocation) node;
+        if (!binding || !rawNode.getArguments().isEmpty()) {
+            return super.visitMethodInvocation(node, unused);
+        }
+
+        var invoked = TreeInfo.symbol(rawNode.getMethodSelect());
+        if (!isShorthand(invoked) || !hasSingleReifiedParameter()) {
+            return super.visitMethodInvocation(node, unused);
+        }
+
+        var method = parameter.isClass() ? enclosingMethod : parameter.methods().head;
+        results.add(new ReifiedCall(parameter.typeParameter(), rawNode, (Symbol.MethodSymbol) invoked, parameter.enclosingClass(), method, enclosingStatement, enclosingLambda));
+        return super.visitMethodInvocation(node, unused);
+    }
+
+    private boolean isBindingMethod(JCTree.JCMethodDecl method) {
+        if (!parameter.isClass()) {
+            return method == parameter.methods().head;
+        }
+
+        return (method.getModifiers().flags & Flags.STATIC) == 0 && method.sym.getTypeParameters()
+                .stream()
+                .noneMatch(simpleTypes::reified);
+    }
+
+    private boolean isShorthand(Symbol invoked) {
+        return invoked instanceof Symbol.MethodSymbol
+                && invoked.getSimpleName().contentEquals(SHORTHAND_NAME)
+                && invoked.owner.getQualifiedName().contentEquals(ReifiedCache.class.getName());
+    }
+
+    private boolean hasSingleReifiedParameter() {
+        return parameter.typeParameter()
+                .getEnclosingElement()
+                .getTypeParameters()
+                .stream()
+                .filter(simpleTypes::reified)
+                .count() == 1;
+    }
+}
@@ -0,0 +1,191 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.SwitchExpressionTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Kinds;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import it.auties.reified.simplified.SimpleTypes;
+
+import java.util.Optional;
+
+// Checks if the returned expression of a method can be copied into its call sites.
+// The expression cannot declare anything, cannot write to any variable and cannot call the method itself or another reified member.
+// The members that it references are collected so that their accessibility can be checked from each call site.
+public class InlineBodyScanner extends TreeScanner<Void, Void> {
+    private final JCTree.JCMethodDecl method;
+    private final Symbol.TypeVariableSymbol typeVariable;
+    private final SimpleTypes simpleTypes;
+    private final ListBuffer<Symbol> references;
+    private int size;
+    private boolean inlinable;
+    public InlineBodyScanner(JCTree.JCMethodDecl method, Symbol.TypeVariableSymbol typeVariable, SimpleTypes simpleTypes) {
+        this.method = method;
+        this.typeVariable = typeVariable;
+        this.simpleTypes = simpleTypes;
+        this.references = new ListBuffer<>();
+    }
+
+    public Optional<List<Symbol>> scan(JCTree.JCExpression body, int sizeLimit) {
+        this.size = 0;
+        this.inlinable = true;
+        scan(body, null);
+        if (!inlinable || size > sizeLimit) {
+            return Optional.empty();
+        }
+
+        return Optional.of(references.toList());
+    }
+
+    @Override
+    public Void scan(Tree tree, Void unused) {
+        if (tree == null || !inlinable) {
+            return null;
+        }
+
+        size++;
+        return super.scan(tree, unused);
+    }
+
+    @Override
+    public Void visitIdentifier(IdentifierTree node, Void unused) {
+        var rawNode = (JCTree.JCIdent) node;
+        if (isTypeVariable(rawNode) || method.sym.getParameters().contains(rawNode.sym)) {
+            return super.visitIdentifier(node, unused);
+        }
+
+        if (TreeInfo.isThisQualifier(rawNode) || rawNode.name == rawNode.name.table.names._super) {
+            this.inlinable = false;
+            return null;
+        }
+
+        addReference(rawNode.sym);
+        return super.visitIdentifier(node, unused);
+    }
+
+    @Override
+    public Void visitMemberSelect(MemberSelectTree node, Void unused) {
+        var rawNode = (JCTree.JCFieldAccess) node;
+        if (isTypeVariable(rawNode.selected) || rawNode.name == rawNode.name.table.names._class) {
+            return super.visitMemberSelect(node, unused);
+        }
+
+        addReference(rawNode.sym);
+        return super.visitMemberSelect(node, unused);
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        var invoked = TreeInfo.symbol(((JCTree.JCMethodInvocation) node).getMethodSelect());
+        if (invoked == method.sym || (invoked instanceof Symbol.MethodSymbol && hasReifiedParameters((Symbol.MethodSymbol) invoked))) {
+            this.inlinable = false;
+            return null;
+        }
+
+        return super.visitMethodInvocation(node, unused);
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree node, Void unused) {
+        var rawNode = (JCTree.JCNewClass) node;
+        if (rawNode.def != null || rawNode.constructor == null || hasReifiedParameters(rawNode.constructor.enclClass())) {
+            this.inlinable = false;
+            return null;
+        }
+
+        return super.visitNewClass(node, unused);
+    }
+
+    @Override
+    public Void visitUnary(UnaryTree node, Void unused) {
+        switch (((JCTree.JCUnary) node).getTag()) {
+            case PREINC:
+            case PREDEC:
+            case POSTINC:
+            case POSTDEC:
+                this.inlinable = false;
+                return null;
+            default:
+                return super.visitUnary(node, unused);
+        }
+    }
+
+    @Override
+    public Void visitAssignment(AssignmentTree node, Void unused) {
+        this.inlinable = false;
+        return null;
+    }
+
+    @Override
+    public Void visitCompoundAssignment(CompoundAssignmentTree node, Void unused) {
+        this.inlinable = false;
+        return null;
+    }
+
+    @Override
+    public Void visitLambdaExpression(LambdaExpressionTree node, Void unused) {
+        this.inlinable = false;
+        return null;
+    }
+
+    @Override
+    public Void visitMemberReference(MemberReferenceTree node, Void unused) {
+        this.inlinable = false;
+        return null;
+    }
+
+    @Override
+    public Void visitSwitchExpression(SwitchExpressionTree node, Void unused) {
+        this.inlinable = false;
+        return null;
+    }
+
+    @Override
+    public Void visitVariable(VariableTree node, Void unused) {
+        this.inlinable = false;
+        return null;
+    }
+
+    @Override
+    public Void visitClass(ClassTree node, Void unused) {
+        this.inlinable = false;
+        return null;
+    }
+
+    // The reified type variable, used both as a type and as the injected Class parameter, is resolved by name after the rewrite.
+    private boolean isTypeVariable(JCTree tree) {
+        return tree.hasTag(JCTree.Tag.IDENT) && ((JCTree.JCIdent) tree).name == typeVariable.name;
+    }
+
+    private boolean hasReifiedParameters(Symbol symbol) {
+        return symbol.getTypeParameters()
+                .stream()
+                .anyMatch(simpleTypes::reified);
+    }
+
+    private void addReference(Symbol symbol) {
+        if (symbol == null || !symbol.kind.isValid()) {
+            this.inlinable = false;
+            return;
+        }
+
+        if (symbol instanceof Symbol.ClassSymbol || symbol.owner.kind == Kinds.Kind.TYP) {
+            references.add(symbol);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package it.auties.reified.scanner;
 
+import com.sun.source.tree.MemberReferenceTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.tree.JCTree;
@@ -22,6 +23,15 @@ public class MethodInvocationScanner extends ReifiedScanner<ReifiedCall> {
         return super.visitMethodInvocation(node, unused);
     }
 
+    @Override
+    public Void visitMemberReference(MemberReferenceTree node, Void unused) {
+        var rawNode = (JCTree.JCMemberReference) node;
+        simpleClasses.resolveReference(enclosingClass, enclosingMethod, rawNode)
+                .filter(this::isMatchingMethod)
+                .ifPresent(methodSymbol -> results.add(buildCall(rawNode, methodSymbol)));
+        return super.visitMemberReference(node, unused);
+    }
+
     private boolean isMatchingMethod(Symbol.MethodSymbol calling) {
         return parameter.methods()
                 .stream()
@@ -0,0 +1,68 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import it.auties.reified.runtime.ReifiedSwitch;
+
+// Finds the invocations of ReifiedSwitch#ordinal(T, A.class, ...) for a reified type parameter in the body of its method.
+// The type parameter isn't a variable before the method is processed, so the invocations are matched by name: only the ones qualified by the name of the class
+// whose cases are all class literals can be replaced. Local and anonymous classes are skipped, as they could declare a type parameter with the same name.
+public class OrdinalInvocationScanner extends TreeScanner<Void, Void> {
+    private static final String ORDINAL_NAME = "ordinal";
+    private final Name typeParameter;
+    private final ListBuffer<JCTree.JCMethodInvocation> results;
+    public OrdinalInvocationScanner(Name typeParameter) {
+        this.typeParameter = typeParameter;
+        this.results = new ListBuffer<>();
+    }
+
+    @Override
+    public Void visitClass(ClassTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        var rawNode = (JCTree.JCMethodInvocation) node;
+        if (isOrdinalName(rawNode.getMethodSelect()) && isTypeParameter(rawNode.getArguments()) && isClassLiterals(rawNode.getArguments().tail)) {
+            results.add(rawNode);
+        }
+
+        return super.visitMethodInvocation(node, unused);
+    }
+
+    private boolean isOrdinalName(JCTree.JCExpression select) {
+        if (!select.hasTag(JCTree.Tag.SELECT)) {
+            return false;
+        }
+
+        var fieldAccess = (JCTree.JCFieldAccess) select;
+        var qualifier = TreeInfo.name(fieldAccess.getExpression());
+        return fieldAccess.getIdentifier().contentEquals(ORDINAL_NAME)
+                && qualifier != null
+                && qualifier.contentEquals(ReifiedSwitch.class.getSimpleName());
+    }
+
+    private boolean isTypeParameter(List<JCTree.JCExpression> arguments) {
+        return !arguments.isEmpty()
+                && arguments.head.hasTag(JCTree.Tag.IDENT)
+                && ((JCTree.JCIdent) arguments.head).getName() == typeParameter;
+    }
+
+    private boolean isClassLiterals(List<JCTree.JCExpression> arguments) {
+        return arguments.stream()
+                .allMatch(argument -> argument.hasTag(JCTree.Tag.SELECT) && ((JCTree.JCFieldAccess) argument).getIdentifier() == typeParameter.table.names._class);
+    }
+
+    public List<JCTree.JCMethodInvocation> scan(JCTree tree) {
+        results.clear();
+        scan(tree, null);
+        return results.toList();
+    }
+}
@@ -0,0 +1,144 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.AnnotatedTypeTree;
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ArrayTypeTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.InstanceOfTree;
+import com.sun.source.tree.IntersectionTypeTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewArrayTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.source.tree.TypeParameterTree;
+import com.sun.source.tree.UnionTypeTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.tree.WildcardTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.Name;
+
+// Checks whether the body of a reified method reads the class of its type parameter, or creates an array of its type.
+// The type parameter isn't a variable before the method is processed, so it's matched by name: the identifiers in the positions of a type are skipped,
+// while the ones in local and anonymous classes are not, so a class that declares a type parameter with the same name keeps the parameter of the method.
+// The invocations that pass the type parameter to other reified methods don't use it: the worker adds the parameter once one of them is rewritten.
+public class ParameterUsageScanner extends TreeScanner<Void, Void> {
+    private final Name typeParameter;
+    private boolean used;
+    public ParameterUsageScanner(Name typeParameter) {
+        this.typeParameter = typeParameter;
+    }
+
+    @Override
+    public Void visitIdentifier(IdentifierTree node, Void unused) {
+        if (((JCTree.JCIdent) node).getName() == typeParameter) {
+            this.used = true;
+        }
+
+        return null;
+    }
+
+    @Override
+    public Void visitNewArray(NewArrayTree node, Void unused) {
+        var elementType = ((JCTree.JCNewArray) node).elemtype;
+        if (elementType != null && elementType.hasTag(JCTree.Tag.IDENT) && ((JCTree.JCIdent) elementType).getName() == typeParameter) {
+            this.used = true;
+        }
+
+        scan(node.getDimensions(), unused);
+        return scan(node.getInitializers(), unused);
+    }
+
+    @Override
+    public Void visitVariable(VariableTree node, Void unused) {
+        return scan(node.getInitializer(), unused);
+    }
+
+    @Override
+    public Void visitTypeCast(TypeCastTree node, Void unused) {
+        return scan(node.getExpression(), unused);
+    }
+
+    @Override
+    public Void visitInstanceOf(InstanceOfTree node, Void unused) {
+        return scan(node.getExpression(), unused);
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        scan(node.getMethodSelect(), unused);
+        return scan(node.getArguments(), unused);
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree node, Void unused) {
+        scan(node.getEnclosingExpression(), unused);
+        scan(node.getArguments(), unused);
+        return scan(node.getClassBody(), unused);
+    }
+
+    @Override
+    public Void visitMemberReference(MemberReferenceTree node, Void unused) {
+        return scan(node.getQualifierExpression(), unused);
+    }
+
+    @Override
+    public Void visitClass(ClassTree node, Void unused) {
+        return scan(node.getMembers(), unused);
+    }
+
+    @Override
+    public Void visitMethod(MethodTree node, Void unused) {
+        return scan(node.getBody(), unused);
+    }
+
+    @Override
+    public Void visitParameterizedType(ParameterizedTypeTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitArrayType(ArrayTypeTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitWildcard(WildcardTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitTypeParameter(TypeParameterTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitIntersectionType(IntersectionTypeTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitUnionType(UnionTypeTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitAnnotatedType(AnnotatedTypeTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitAnnotation(AnnotationTree node, Void unused) {
+        return null;
+    }
+
+    public boolean scan(JCTree tree) {
+        this.used = false;
+        scan(tree, null);
+        return used;
+    }
+}
@@ -0,0 +1,133 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Kinds;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symtab;
+import com.sun.tools.javac.comp.Check;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.List;
+
+// Prepares an already attributed compilation unit to be attributed again by javac.
+// Member classes keep their symbols, as they are not entered again, while local and anonymous classes are dropped,
+// as javac enters them again while attributing their enclosing method.
+public class ReattributionScanner extends TreeScanner<Void, Void> {
+    private final Check check;
+    private final Symtab symtab;
+    private boolean insideBody;
+    public ReattributionScanner(Check check, Symtab symtab) {
+        this.check = check;
+        this.symtab = symtab;
+    }
+
+    @Override
+    public Void visitClass(ClassTree node, Void unused) {
+        super.visitClass(node, unused);
+        var rawNode = (JCTree.JCClassDecl) node;
+        if (rawNode.sym == null) {
+            return null;
+        }
+
+        if (!isLocal(rawNode.sym)) {
+            rawNode.sym.flags_field |= Flags.UNATTRIBUTED;
+            return null;
+        }
+
+        rawNode.defs = rawNode.defs.stream()
+                .filter(tree -> !isGeneratedConstructor(tree))
+                .collect(List.collector());
+        check.removeCompiled(rawNode.sym);
+        check.clearLocalClassNameIndexes(rawNode.sym);
+        symtab.removeClass(rawNode.sym.packge().modle, rawNode.sym.flatname);
+        rawNode.sym = null;
+        return null;
+    }
+
+    @Override
+    public Void visitBlock(BlockTree node, Void unused) {
+        var previous = insideBody;
+        this.insideBody = true;
+        super.visitBlock(node, unused);
+        this.insideBody = previous;
+        return null;
+    }
+
+    @Override
+    public Void visitVariable(VariableTree node, Void unused) {
+        var rawNode = (JCTree.JCVariableDecl) node;
+        if (!insideBody) {
+            scan(rawNode.getModifiers(), unused);
+            scan(rawNode.getType(), unused);
+            this.insideBody = true;
+            scan(rawNode.getInitializer(), unused);
+            this.insideBody = false;
+            return null;
+        }
+
+        if (rawNode.sym == null || (rawNode.sym.flags() & Flags.PARAMETER) == 0) {
+            rawNode.sym = null;
+            return super.visitVariable(node, unused);
+        }
+
+        // Attr only enters the symbol of a parameter that was already entered, like the one of a catch clause, so its type is not attributed again
+        this.insideBody = false;
+        scan(rawNode.getModifiers(), unused);
+        scan(rawNode.getType(), unused);
+        this.insideBody = true;
+        return null;
+    }
+
+    // Attr reuses the symbol of identifiers that don't point to a variable, which would hide the rewritten members.
+    // Signatures of member classes are not attributed again, so only the symbols inside bodies and initializers are dropped.
+    @Override
+    public Void visitIdentifier(IdentifierTree node, Void unused) {
+        if (insideBody) {
+            ((JCTree.JCIdent) node).sym = null;
+        }
+
+        return super.visitIdentifier(node, unused);
+    }
+
+    @Override
+    public Void visitMemberSelect(MemberSelectTree node, Void unused) {
+        if (insideBody) {
+            ((JCTree.JCFieldAccess) node).sym = null;
+        }
+
+        return super.visitMemberSelect(node, unused);
+    }
+
+    // Annotations keep their attributed type, so javac doesn't resolve them again
+    @Override
+    public Void visitAnnotation(AnnotationTree node, Void unused) {
+        return null;
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree node, Void unused) {
+        ((JCTree.JCNewClass) node).constructor = null;
+        return super.visitNewClass(node, unused);
+    }
+
+    private boolean isLocal(Symbol symbol) {
+        return symbol.owner.kind == Kinds.Kind.MTH || symbol.owner.kind == Kinds.Kind.VAR;
+    }
+
+    private boolean isGeneratedConstructor(JCTree tree) {
+        return TreeInfo.isConstructor(tree)
+                && (((JCTree.JCMethodDecl) tree).mods.flags & Flags.GENERATEDCONSTR) != 0;
+    }
+
+    public void reset(JCTree.JCCompilationUnit unit) {
+        scan(unit, null);
+    }
+}
@@ -0,0 +1,51 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import it.auties.reified.model.ReifiedCall;
+import it.auties.reified.runtime.ReifiedRegistry;
+import it.auties.reified.simplified.SimpleClasses;
+import it.auties.reified.simplified.SimpleTypes;
+
+import java.util.Set;
+
+// Finds the invocations of ReifiedRegistry#all() and ReifiedRegistry#create() that don't pass a registry.
+// Only the invocations qualified by the name of the class are attributed, so statically imported ones aren't bound.
+public class RegistryInvocationScanner extends ReifiedScanner<ReifiedCall> {
+    private static final Set<String> SHORTHAND_NAMES = Set.of("all", "create");
+    public RegistryInvocationScanner(SimpleClasses simpleClasses, SimpleTypes simpleTypes) {
+        super(null, simpleClasses, simpleTypes);
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        var rawNode = (JCTree.JCMethodInvocation) node;
+        if (!rawNode.getArguments().isEmpty() || !isRegistryName(rawNode.getMethodSelect())) {
+            return super.visitMethodInvocation(node, unused);
+        }
+
+        simpleClasses.resolveMethod(enclosingClass, enclosingMethod, rawNode)
+                .filter(this::isShorthand)
+                .ifPresent(method -> results.add(new ReifiedCall(method.getTypeParameters().head, rawNode, method, enclosingClass, enclosingMethod, enclosingStatement, enclosingLambda)));
+        return super.visitMethodInvocation(node, unused);
+    }
+
+    private boolean isRegistryName(JCTree.JCExpression select) {
+        if (!select.hasTag(JCTree.Tag.SELECT)) {
+            return false;
+        }
+
+        var fieldAccess = (JCTree.JCFieldAccess) select;
+        var qualifier = TreeInfo.name(fieldAccess.getExpression());
+        return SHORTHAND_NAMES.contains(fieldAccess.getIdentifier().toString())
+                && qualifier != null
+                && qualifier.contentEquals(ReifiedRegistry.class.getSimpleName());
+    }
+
+    private boolean isShorthand(Symbol.MethodSymbol method) {
+        return method.getParameters().isEmpty()
+                && method.owner.getQualifiedName().contentEquals(ReifiedRegistry.class.getName());
+    }
+}
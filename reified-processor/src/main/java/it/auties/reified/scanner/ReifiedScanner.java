@@ -1,6 +1,7 @@
 package it.auties.reified.scanner;
 
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.LambdaExpressionTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.util.TreeScanner;
@@ -26,6 +27,7 @@ public abstract class ReifiedScanner<T> extends TreeScanner<Void, Void> {
     protected JCTree.JCClassDecl enclosingClass;
     protected JCTree.JCMethodDecl enclosingMethod;
     protected JCTree.JCStatement enclosingStatement;
+    protected JCTree.JCLambda enclosingLambda;
     protected ListBuffer<JCTree.JCExpression> enclosingExpressions;
 
     protected ReifiedScanner(ReifiedDeclaration parameter, SimpleClasses simpleClasses, SimpleTypes simpleTypes) {
@@ -46,10 +48,32 @@ public abstract class ReifiedScanner<T> extends TreeScanner<Void, Void> {
         return super.scan(tree, unused);
     }
 
+    // The expressions that follow a nested or anonymous class are enclosed by the class and the method that enclose the nested one
     @Override
     public Void visitClass(ClassTree node, Void unused) {
+        var previousClass = enclosingClass;
+        var previousMethod = enclosingMethod;
+        var previousLambda = enclosingLambda;
         this.enclosingClass = (JCTree.JCClassDecl) node;
-        return super.visitClass(node, unused);
+        this.enclosingMethod = null;
+        this.enclosingLambda = null;
+        super.visitClass(node, unused);
+        this.enclosingClass = previousClass;
+        this.enclosingMethod = previousMethod;
+        this.enclosingLambda = previousLambda;
+        return null;
+    }
+
+    // The statements of a lambda's body don't enclose the expressions that follow the lambda
+    @Override
+    public Void visitLambdaExpression(LambdaExpressionTree node, Void unused) {
+        var previousLambda = enclosingLambda;
+        var previousStatement = enclosingStatement;
+        this.enclosingLambda = (JCTree.JCLambda) node;
+        super.visitLambdaExpression(node, unused);
+        this.enclosingLambda = previousLambda;
+        this.enclosingStatement = previousStatement;
+        return null;
     }
 
     @Override
@@ -60,7 +84,7 @@ public abstract class ReifiedScanner<T> extends TreeScanner<Void, Void> {
     }
 
     protected ReifiedCall buildCall(JCTree.JCPolyExpression tree, Symbol.MethodSymbol invoked) {
-        return new ReifiedCall(parameter.typeParameter(), tree, invoked, enclosingClass, enclosingMethod, enclosingStatement);
+        return new ReifiedCall(parameter.typeParameter(), tree, invoked, enclosingClass, enclosingMethod, enclosingStatement, enclosingLambda);
     }
 
     protected ReifiedArrayInitialization buildArrayInit(JCTree.JCNewArray tree, Symbol.TypeVariableSymbol typeVariableSymbol) {
@@ -70,6 +94,7 @@ public abstract class ReifiedScanner<T> extends TreeScanner<Void, Void> {
     public Set<T> scan(JCTree tree) {
         this.results = new HashSet<>();
         this.enclosingExpressions = new ListBuffer<>();
+        this.enclosingLambda = null;
         scan(tree, null);
         return results;
     }
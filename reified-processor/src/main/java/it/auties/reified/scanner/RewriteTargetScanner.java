@@ -0,0 +1,45 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.tree.JCTree;
+import it.auties.reified.model.ReifiedRewrite;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Finds the trees targeted by the rewrites replayed from the plan cache, by position and tag.
+// The unit has the same content it had when the rewrites were recorded, so the positions still match: nothing is attributed.
+public class RewriteTargetScanner extends TreeScanner<Void, Void> {
+    private final Map<Integer, List<JCTree.Tag>> targets;
+    private final Map<String, JCTree> results;
+    public RewriteTargetScanner(List<ReifiedRewrite> rewrites) {
+        this.targets = rewrites.stream()
+                .collect(Collectors.groupingBy(ReifiedRewrite::position, Collectors.mapping(ReifiedRewrite::tag, Collectors.toList())));
+        this.results = new HashMap<>();
+    }
+
+    @Override
+    public Void scan(Tree tree, Void unused) {
+        if (tree instanceof JCTree) {
+            var rawTree = (JCTree) tree;
+            var tags = targets.get(rawTree.pos);
+            if (tags != null && tags.contains(rawTree.getTag())) {
+                results.putIfAbsent(toKey(rawTree.pos, rawTree.getTag()), rawTree);
+            }
+        }
+
+        return super.scan(tree, unused);
+    }
+
+    public Map<String, JCTree> scan(JCTree tree) {
+        scan(tree, null);
+        return results;
+    }
+
+    public static String toKey(int position, JCTree.Tag tag) {
+        return position + ":" + tag.name();
+    }
+}
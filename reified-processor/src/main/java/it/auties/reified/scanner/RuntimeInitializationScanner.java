@@ -0,0 +1,59 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.NewClassTree;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import it.auties.reified.model.ReifiedCall;
+import it.auties.reified.runtime.ReifiedList;
+import it.auties.reified.runtime.ReifiedMap;
+import it.auties.reified.simplified.SimpleClasses;
+import it.auties.reified.simplified.SimpleTypes;
+
+import java.util.Set;
+
+// Finds the initializations of the runtime collections that don't pass their types, for example new ReifiedList<Long>().
+// The runtime collections are compiled without reified, so they aren't bound to a declaration: a call is built for each type parameter of the collection.
+// Only the initializations whose class is named like a runtime collection are attributed.
+public class RuntimeInitializationScanner extends ReifiedScanner<ReifiedCall> {
+    private static final Set<String> RUNTIME_CLASSES = Set.of(ReifiedList.class.getName(), ReifiedMap.class.getName());
+    private static final Set<String> RUNTIME_NAMES = Set.of(ReifiedList.class.getSimpleName(), ReifiedMap.class.getSimpleName());
+    public RuntimeInitializationScanner(SimpleClasses simpleClasses, SimpleTypes simpleTypes) {
+        super(null, simpleClasses, simpleTypes);
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree node, Void unused) {
+        var rawTree = (JCTree.JCNewClass) node;
+        if (rawTree.getClassBody() != null || !isRuntimeName(rawTree)) {
+            return super.visitNewClass(node, unused);
+        }
+
+        var constructor = simpleClasses.findAndResolveConstructor(enclosingClass, enclosingMethod, rawTree);
+        if (constructor.isEmpty() || !isUnboundConstructor(constructor.get())) {
+            return super.visitNewClass(node, unused);
+        }
+
+        constructor.get()
+                .enclClass()
+                .getTypeParameters()
+                .forEach(typeVariable -> results.add(new ReifiedCall((Symbol.TypeVariableSymbol) typeVariable, rawTree, constructor.get(), enclosingClass, enclosingMethod, enclosingStatement, enclosingLambda)));
+        return super.visitNewClass(node, unused);
+    }
+
+    private boolean isRuntimeName(JCTree.JCNewClass newClass) {
+        var identifier = newClass.getIdentifier();
+        var type = identifier.hasTag(JCTree.Tag.TYPEAPPLY) ? ((JCTree.JCTypeApply) identifier).getType() : identifier;
+        var name = TreeInfo.name(type);
+        return name != null && RUNTIME_NAMES.contains(name.toString());
+    }
+
+    private boolean isUnboundConstructor(Symbol.MethodSymbol constructor) {
+        if (!RUNTIME_CLASSES.contains(constructor.enclClass().getQualifiedName().toString())) {
+            return false;
+        }
+
+        var parameters = constructor.getParameters();
+        return parameters.isEmpty() || !parameters.head.asType().tsym.getQualifiedName().contentEquals(Class.class.getName());
+    }
+}
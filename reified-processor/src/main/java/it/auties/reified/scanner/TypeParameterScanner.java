@@ -0,0 +1,55 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import it.auties.reified.model.ReifiedCandidate;
+import it.auties.reified.simplified.SimpleTypes;
+
+public class TypeParameterScanner extends TreeScanner<Void, Void> {
+    private final SimpleTypes simpleTypes;
+    private final ListBuffer<ReifiedCandidate> results;
+    private JCTree.JCClassDecl enclosingClass;
+    public TypeParameterScanner(SimpleTypes simpleTypes) {
+        this.simpleTypes = simpleTypes;
+        this.results = new ListBuffer<>();
+    }
+
+    @Override
+    public Void visitClass(ClassTree node, Void unused) {
+        var rawNode = (JCTree.JCClassDecl) node;
+        findReifiedParameters(rawNode.getTypeParameters())
+                .forEach(typeVariable -> results.add(new ReifiedCandidate(typeVariable, rawNode, null)));
+        var previous = enclosingClass;
+        this.enclosingClass = rawNode;
+        super.visitClass(node, unused);
+        this.enclosingClass = previous;
+        return null;
+    }
+
+    @Override
+    public Void visitMethod(MethodTree node, Void unused) {
+        var rawNode = (JCTree.JCMethodDecl) node;
+        findReifiedParameters(rawNode.getTypeParameters())
+                .forEach(typeVariable -> results.add(new ReifiedCandidate(typeVariable, enclosingClass, rawNode)));
+        return super.visitMethod(node, unused);
+    }
+
+    private List<Symbol.TypeVariableSymbol> findReifiedParameters(List<JCTree.JCTypeParameter> typeParameters) {
+        return typeParameters.stream()
+                .filter(typeParameter -> typeParameter.type != null)
+                .map(typeParameter -> (Symbol.TypeVariableSymbol) typeParameter.type.tsym)
+                .filter(simpleTypes::reified)
+                .collect(List.collector());
+    }
+
+    public List<ReifiedCandidate> scan(List<? extends JCTree> trees) {
+        results.clear();
+        trees.forEach(tree -> scan(tree, null));
+        return results.toList();
+    }
+}
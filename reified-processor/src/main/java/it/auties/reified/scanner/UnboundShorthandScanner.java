@@ -0,0 +1,64 @@
+package it.auties.reified.scanner;
+
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import it.auties.reified.runtime.ReifiedCache;
+import it.auties.reified.runtime.ReifiedRegistry;
+
+import java.util.Map;
+import java.util.Set;
+
+// Finds the invocations and the references of the shorthand methods of the runtime, like ReifiedCache#get() and ReifiedRegistry#all(), that reified didn't bind.
+// A bound invocation is passed its type, so it no longer resolves to the shorthand: only attributed trees are scanned.
+public class UnboundShorthandScanner extends TreeScanner<Void, Void> {
+    private static final Map<String, Set<String>> SHORTHANDS = Map.of(
+            ReifiedCache.class.getName(), Set.of("get"),
+            ReifiedRegistry.class.getName(), Set.of("all", "create")
+    );
+
+    private final ListBuffer<JCTree> results;
+    public UnboundShorthandScanner() {
+        this.results = new ListBuffer<>();
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+        var rawNode = (JCTree.JCMethodInvocation) node;
+        if (isShorthand(TreeInfo.symbol(rawNode.getMethodSelect()))) {
+            results.add(rawNode);
+        }
+
+        return super.visitMethodInvocation(node, unused);
+    }
+
+    @Override
+    public Void visitMemberReference(MemberReferenceTree node, Void unused) {
+        var rawNode = (JCTree.JCMemberReference) node;
+        if (isShorthand(rawNode.sym)) {
+            results.add(rawNode);
+        }
+
+        return super.visitMemberReference(node, unused);
+    }
+
+    public static boolean isShorthand(Symbol symbol) {
+        if (!(symbol instanceof Symbol.MethodSymbol) || !((Symbol.MethodSymbol) symbol).getParameters().isEmpty()) {
+            return false;
+        }
+
+        var names = SHORTHANDS.get(symbol.owner.getQualifiedName().toString());
+        return names != null && names.contains(symbol.getSimpleName().toString());
+    }
+
+    public List<JCTree> scan(JCTree tree) {
+        results.clear();
+        scan(tree, null);
+        return results.toList();
+    }
+}
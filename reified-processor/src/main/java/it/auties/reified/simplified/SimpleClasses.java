@@ -102,4 +102,15 @@ public class SimpleClasses {
         var method = (Symbol.MethodSymbol) symbol;
         return Optional.of(method);
     }
+
+    public Optional<Symbol.MethodSymbol> resolveReference(JCTree.JCClassDecl enclosingClass, JCTree.JCMethodDecl enclosingMethod, JCTree.JCMemberReference reference) {
+        var classEnv = simpleTypes.findClassEnv(enclosingClass);
+        var methodEnv = simpleTypes.findMethodEnv(enclosingMethod, classEnv);
+        simpleTypes.resolveEnv(methodEnv);
+        if (!(reference.sym instanceof Symbol.MethodSymbol)) {
+            return Optional.empty();
+        }
+
+        return Optional.of((Symbol.MethodSymbol) reference.sym);
+    }
 }
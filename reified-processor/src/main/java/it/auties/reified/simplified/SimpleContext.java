@@ -9,7 +9,12 @@ import java.lang.reflect.Proxy;
 import java.util.Optional;
 
 public class SimpleContext {
+    // The context is resolved again for every round and compilation, nothing is cached as a build daemon can run multiple compilations at once
     public static Context resolveContext(ProcessingEnvironment environment) {
+        if (environment instanceof JavacProcessingEnvironment) {
+            return ((JavacProcessingEnvironment) environment).getContext();
+        }
+
         var envClass = environment.getClass();
         if (envClass.getName().equals("com.sun.tools.javac.processing.JavacProcessingEnvironment")) {
             return resolveJavacContext(environment, envClass);
@@ -0,0 +1,298 @@
+package it.auties.reified.simplified;
+
+import com.sun.source.tree.ArrayTypeTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.InstanceOfTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewArrayTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Kinds;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.comp.AttrContext;
+import com.sun.tools.javac.comp.Env;
+import com.sun.tools.javac.comp.Resolve;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeCopier;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeTranslator;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import it.auties.reified.model.ReifiedCall;
+import it.auties.reified.model.ReifiedDeclaration;
+import it.auties.reified.scanner.InlineBodyScanner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Replaces the invocations of static methods whose reified type parameter is marked as inline with the expression they return.
+// Every invocation that cannot be inlined safely still receives the class literal as a parameter, so the method itself is always kept.
+public class SimpleInliner {
+    private final TreeMaker maker;
+    private final Resolve resolve;
+    private final SimpleTypes simpleTypes;
+    private final int sizeLimit;
+    private final Map<JCTree.JCMethodDecl, Optional<List<Symbol>>> inlinableMethods;
+    public SimpleInliner(TreeMaker maker, Resolve resolve, SimpleTypes simpleTypes, int sizeLimit) {
+        this.maker = maker;
+        this.resolve = resolve;
+        this.simpleTypes = simpleTypes;
+        this.sizeLimit = sizeLimit;
+        this.inlinableMethods = new HashMap<>();
+    }
+
+    // A site that is passed the erased bound keeps its invocation, as the type that javac infers for it may be more specific
+    public boolean inline(ReifiedDeclaration declaration, ReifiedCall call) {
+        if (declaration.isClass() || !call.invocation().hasTag(JCTree.Tag.APPLY) || simpleTypes.generic(call.reifiedType()) || call.fallbackReason() != null) {
+            return false;
+        }
+
+        var method = declaration.methods().head;
+        var references = inlinableMethods.computeIfAbsent(method, ignored -> findReferences(declaration, method));
+        if (references.isEmpty()) {
+            return false;
+        }
+
+        var invocation = (JCTree.JCMethodInvocation) call.invocation();
+        if (!isStaticSelection(invocation.getMethodSelect()) || !invocation.getArguments().stream().allMatch(this::isSimpleArgument)) {
+            return false;
+        }
+
+        if (!isInlinableStatement(call.enclosingStatement(), invocation) || !isAccessible(references.get(), simpleTypes.findClassEnv(call.enclosingClass()))) {
+            return false;
+        }
+
+        var castTypes = findCastTypes(declaration, call, method);
+        if (castTypes.isEmpty()) {
+            return false;
+        }
+
+        var inlined = createInlinedExpression(declaration, call, method, invocation, castTypes.get());
+        var replacer = new InvocationReplacer(invocation, inlined);
+        replacer.translate(call.enclosingStatement());
+        return replacer.replaced();
+    }
+
+    private Optional<List<Symbol>> findReferences(ReifiedDeclaration declaration, JCTree.JCMethodDecl method) {
+        var flags = method.getModifiers().flags;
+        if ((flags & Flags.STATIC) == 0 || (flags & Flags.VARARGS) != 0 || method.getBody() == null) {
+            return Optional.empty();
+        }
+
+        var statements = method.getBody().getStatements();
+        if (statements.size() != 1 || !statements.head.hasTag(JCTree.Tag.RETURN)) {
+            return Optional.empty();
+        }
+
+        var returned = ((JCTree.JCReturn) statements.head).getExpression();
+        if (returned == null) {
+            return Optional.empty();
+        }
+
+        return new InlineBodyScanner(method, declaration.typeParameter(), simpleTypes)
+                .scan(returned, sizeLimit);
+    }
+
+    // Static methods selected through an expression would need said expression to be evaluated anyway
+    private boolean isStaticSelection(JCTree.JCExpression methodSelect) {
+        switch (methodSelect.getTag()) {
+            case IDENT:
+                return true;
+            case SELECT:
+                return TreeInfo.symbol(((JCTree.JCFieldAccess) methodSelect).getExpression()) instanceof Symbol.ClassSymbol;
+            default:
+                return false;
+        }
+    }
+
+    // Arguments are copied where their parameter is used, which could be zero or more times, so only the ones without side effects can be inlined
+    private boolean isSimpleArgument(JCTree.JCExpression argument) {
+        var expression = TreeInfo.skipParens(argument);
+        switch (expression.getTag()) {
+            case LITERAL:
+            case IDENT:
+                return true;
+            case SELECT:
+                return ((JCTree.JCFieldAccess) expression).getIdentifier() == ((JCTree.JCFieldAccess) expression).name.table.names._class;
+            default:
+                return false;
+        }
+    }
+
+    // An expression statement must be a method invocation, so an invocation whose result is discarded is never inlined
+    private boolean isInlinableStatement(JCTree.JCStatement statement, JCTree.JCMethodInvocation invocation) {
+        if (statement == null || statement.hasTag(JCTree.Tag.CLASSDEF)) {
+            return false;
+        }
+
+        return !statement.hasTag(JCTree.Tag.EXEC) || TreeInfo.skipParens(((JCTree.JCExpressionStatement) statement).getExpression()) != invocation;
+    }
+
+    private boolean isAccessible(List<Symbol> references, Env<AttrContext> env) {
+        return references.stream()
+                .allMatch(reference -> reference instanceof Symbol.ClassSymbol ? resolve.isAccessible(env, (Symbol.TypeSymbol) reference) : resolve.isAccessible(env, reference.owner.type, reference));
+    }
+
+    private List<Symbol.VarSymbol> findParameters(ReifiedDeclaration declaration, JCTree.JCMethodDecl method) {
+        return method.sym.getParameters()
+                .stream()
+                .filter(parameter -> parameter.getSimpleName() != declaration.typeParameter().getSimpleName())
+                .collect(List.collector());
+    }
+
+    // The arguments are cast to the types of their parameters and the expression to the return type, so that they keep the conversions of the invocation:
+    // an int passed as a double is still divided as a double, and a String passed as an Object still selects the overloads that take an Object.
+    // The reified type parameter is replaced by the reified type, while a type that uses any other type parameter cannot be written at the call site.
+    // The last type is the one of the returned expression.
+    private Optional<List<Type>> findCastTypes(ReifiedDeclaration declaration, ReifiedCall call, JCTree.JCMethodDecl method) {
+        var typeVariables = method.sym.getTypeParameters()
+                .stream()
+                .map(typeVariable -> typeVariable.type)
+                .collect(List.collector());
+        var castTypes = findParameters(declaration, method)
+                .map(parameter -> parameter.type)
+                .append(method.sym.getReturnType())
+                .map(type -> simpleTypes.substitute(type, declaration.typeParameter(), call.reifiedType()));
+        if (castTypes.stream().anyMatch(type -> type.containsAny(typeVariables))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(castTypes);
+    }
+
+    private JCTree.JCExpression createInlinedExpression(ReifiedDeclaration declaration, ReifiedCall call, JCTree.JCMethodDecl method, JCTree.JCMethodInvocation invocation, List<Type> castTypes) {
+        var arguments = new HashMap<Symbol, JCTree.JCExpression>();
+        var parameters = findParameters(declaration, method);
+        for (var x = 0; x < parameters.size(); x++) {
+            arguments.put(parameters.get(x), createCast(castTypes.get(x), invocation.getArguments().get(x), invocation.pos));
+        }
+
+        var copier = new InliningCopier(maker, invocation.pos, declaration.typeParameter().name, call.reifiedType(), arguments);
+        var returned = ((JCTree.JCReturn) method.getBody().getStatements().head).getExpression();
+        return createCast(castTypes.last(), copier.copy(returned, false), invocation.pos);
+    }
+
+    private JCTree.JCExpression createCast(Type type, JCTree.JCExpression expression, int position) {
+        return maker.at(position).Parens(maker.TypeCast(maker.Type(type), expression));
+    }
+
+    // Copies the returned expression of an inlined method, the boolean parameter is true if the copied tree is used as a type
+    private class InliningCopier extends TreeCopier<Boolean> {
+        private final int position;
+        private final Name typeVariableName;
+        private final Type reifiedType;
+        private final Map<Symbol, JCTree.JCExpression> arguments;
+        private InliningCopier(TreeMaker maker, int position, Name typeVariableName, Type reifiedType, Map<Symbol, JCTree.JCExpression> arguments) {
+            super(maker);
+            this.position = position;
+            this.typeVariableName = typeVariableName;
+            this.reifiedType = reifiedType;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public <T extends JCTree> T copy(T tree, Boolean type) {
+            var result = super.copy(tree, type);
+            if (result != null) {
+                result.pos = position;
+            }
+
+            return result;
+        }
+
+        @Override
+        public JCTree visitIdentifier(IdentifierTree node, Boolean type) {
+            var rawNode = (JCTree.JCIdent) node;
+            if (rawNode.name == typeVariableName) {
+                return type ? maker.at(position).Type(simpleTypes.erase(reifiedType)) : maker.at(position).ClassLiteral(reifiedType);
+            }
+
+            var argument = arguments.get(rawNode.sym);
+            if (argument != null) {
+                return new TreeCopier<Void>(maker).copy(argument);
+            }
+
+            if (rawNode.sym instanceof Symbol.ClassSymbol) {
+                return maker.at(position).QualIdent(rawNode.sym);
+            }
+
+            if (rawNode.sym != null && rawNode.sym.owner.kind == Kinds.Kind.TYP) {
+                return maker.at(position).Select(maker.QualIdent(rawNode.sym.owner), rawNode.sym.name);
+            }
+
+            return super.visitIdentifier(node, type);
+        }
+
+        @Override
+        public JCTree visitTypeCast(TypeCastTree node, Boolean type) {
+            var rawNode = (JCTree.JCTypeCast) node;
+            return maker.at(position).TypeCast(copy(rawNode.clazz, true), copy(rawNode.expr, type));
+        }
+
+        @Override
+        public JCTree visitInstanceOf(InstanceOfTree node, Boolean type) {
+            var rawNode = (JCTree.JCInstanceOf) node;
+            return maker.at(position).TypeTest(copy(rawNode.expr, type), copy(rawNode.pattern, true));
+        }
+
+        @Override
+        public JCTree visitNewArray(NewArrayTree node, Boolean type) {
+            var rawNode = (JCTree.JCNewArray) node;
+            return maker.at(position).NewArray(copy(rawNode.elemtype, true), copy(rawNode.dims, type), copy(rawNode.elems, type));
+        }
+
+        @Override
+        public JCTree visitArrayType(ArrayTypeTree node, Boolean type) {
+            var rawNode = (JCTree.JCArrayTypeTree) node;
+            return maker.at(position).TypeArray(copy(rawNode.elemtype, true));
+        }
+
+        @Override
+        public JCTree visitParameterizedType(ParameterizedTypeTree node, Boolean type) {
+            var rawNode = (JCTree.JCTypeApply) node;
+            return maker.at(position).TypeApply(copy(rawNode.clazz, true), copy(rawNode.arguments, true));
+        }
+
+        @Override
+        public JCTree visitMethodInvocation(MethodInvocationTree node, Boolean type) {
+            var rawNode = (JCTree.JCMethodInvocation) node;
+            return maker.at(position).Apply(copy(rawNode.typeargs, true), copy(rawNode.meth, type), copy(rawNode.args, type));
+        }
+
+        @Override
+        public JCTree visitNewClass(NewClassTree node, Boolean type) {
+            var rawNode = (JCTree.JCNewClass) node;
+            return maker.at(position).NewClass(copy(rawNode.encl, type), copy(rawNode.typeargs, true), copy(rawNode.clazz, true), copy(rawNode.args, type), null);
+        }
+    }
+
+    private static class InvocationReplacer extends TreeTranslator {
+        private final JCTree.JCMethodInvocation invocation;
+        private final JCTree.JCExpression replacement;
+        private boolean replaced;
+        private InvocationReplacer(JCTree.JCMethodInvocation invocation, JCTree.JCExpression replacement) {
+            this.invocation = invocation;
+            this.replacement = replacement;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends JCTree> T translate(T tree) {
+            if (tree != invocation) {
+                return super.translate(tree);
+            }
+
+            this.replaced = true;
+            return (T) replacement;
+        }
+
+        private boolean replaced() {
+            return replaced;
+        }
+    }
+}
@@ -3,14 +3,17 @@ package it.auties.reified.simplified;
 import com.sun.source.tree.Tree;
 import com.sun.tools.javac.code.Flags;
 import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symtab;
 import com.sun.tools.javac.code.Type;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeInfo;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.util.List;
 import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
 import it.auties.reified.model.ReifiedArrayInitialization;
 import it.auties.reified.model.ReifiedDeclaration;
+import it.auties.reified.runtime.ReifiedClasses;
 
 import javax.lang.model.element.Element;
 import java.util.ArrayList;
@@ -18,15 +21,38 @@ import java.util.LinkedList;
 import java.util.NoSuchElementException;
 
 public class SimpleMaker {
+    private static final String PARAMETERIZED_NAME = "parameterized";
+
     private final TreeMaker maker;
+    private final Symtab symtab;
+    private final Names names;
     private final SimpleTypes simpleTypes;
-    public SimpleMaker(TreeMaker maker, SimpleTypes simpleTypes) {
+    private final SimpleSerialization simpleSerialization;
+    public SimpleMaker(TreeMaker maker, Symtab symtab, Names names, SimpleTypes simpleTypes, SimpleSerialization simpleSerialization) {
         this.maker = maker;
+        this.symtab = symtab;
+        this.names = names;
         this.simpleTypes = simpleTypes;
+        this.simpleSerialization = simpleSerialization;
     }
 
+    // The literal of a parameterized or intersection type is the one of its erasure, which is also the only one that can be written in a source.
+    // Its type doesn't match the Class of the type: a parameterized type is passed through ReifiedClasses#parameterized, whose unchecked cast doesn't warn at the call site,
+    // while a type that cannot be written as a type argument, like an intersection, is cast to the raw Class like a source would.
+    // The type argument is explicit for the same reason as in SimpleProfiler#profile.
     public JCTree.JCExpression classLiteral(Type type) {
-        return maker.ClassLiteral(type);
+        var erased = simpleTypes.erase(type);
+        var literal = maker.ClassLiteral(erased);
+        if (simpleTypes.erased(type)) {
+            return literal;
+        }
+
+        if (!simpleTypes.denotable(type)) {
+            return maker.TypeCast(maker.Type(simpleTypes.erase(symtab.classType)), literal);
+        }
+
+        var helper = (Symbol) simpleTypes.toTypeElement(ReifiedClasses.class);
+        return maker.Apply(List.of(maker.Type(type)), maker.Select(maker.QualIdent(helper), names.fromString(PARAMETERIZED_NAME)), List.of(literal));
     }
 
     public JCTree.JCExpression type(Type rawLocalVariableType) {
@@ -242,23 +268,67 @@ public class SimpleMaker {
         var localVariable = maker.at(enclosingClass.pos)
                 .VarDef(localVariableModifiers, localVariableName, localVariableType, null);
         localVariable.sym = new Symbol.VarSymbol(rawLocalVariableModifiers, localVariableName, rawLocalVariableType, enclosingClass.sym);
+        localVariable.sym.pos = localVariable.pos;
+        enclosingClass.sym.members().enter(localVariable.sym);
+        if (simpleTypes.record(enclosingClass.getModifiers())) {
+            addRecordComponent(enclosingClass, localVariable);
+        }
+
+        if ((rawLocalVariableModifiers & Flags.TRANSIENT) != 0) {
+            simpleSerialization.addField(enclosingClass, localVariable);
+        }
 
         enclosingClass.defs = enclosingClass.defs.prepend(localVariable);
         return localVariable;
     }
 
+    // The record components of an entered record don't include the generated field, which must be the first one to match the canonical constructor.
+    // Components are always appended, so the existing ones are recreated after the new one.
+    // Like any other implicit accessor, the body of the one created here is generated by Lower.
+    private void addRecordComponent(JCTree.JCClassDecl enclosingClass, JCTree.JCVariableDecl localVariable) {
+        var recordSymbol = enclosingClass.sym;
+        var accessorType = new Type.MethodType(List.nil(), localVariable.sym.type, List.nil(), symtab.methodClass);
+        var accessor = new Symbol.MethodSymbol(Flags.PUBLIC | Flags.GENERATED_MEMBER, localVariable.getName(), accessorType, recordSymbol);
+        recordSymbol.members().enter(accessor);
+        recordSymbol.createRecordComponent(null, localVariable, List.nil()).accessor = accessor;
+        TreeInfo.recordFields(enclosingClass)
+                .stream()
+                .filter(field -> field != localVariable)
+                .forEach(field -> moveRecordComponent(recordSymbol, field));
+    }
+
+    private void moveRecordComponent(Symbol.ClassSymbol recordSymbol, JCTree.JCVariableDecl field) {
+        var existing = recordSymbol.getRecordComponent(field.sym);
+        var moved = recordSymbol.createRecordComponent(existing, field, List.nil());
+        moved.accessor = existing.accessor;
+        moved.accessorMeth = existing.accessorMeth;
+    }
+
     private long createVariableModifiers(JCTree.JCClassDecl enclosingClass) {
         if (simpleTypes.record(enclosingClass.getModifiers())) {
             return Flags.PRIVATE | Flags.FINAL | Flags.COMPOUND | Flags.RECORD;
         }
 
+        if (simpleSerialization.transientField(enclosingClass)) {
+            return Flags.PRIVATE | Flags.TRANSIENT;
+        }
+
         return Flags.PRIVATE | Flags.FINAL;
     }
 
     private JCTree.JCVariableDecl addParameter(Symbol.TypeVariableSymbol typeParameter, JCTree.JCMethodDecl method) {
         var paramType = simpleTypes.createTypeWithParameters(Class.class, typeParameter);
-        var param = maker.at(method.pos).Param(typeParameter.getSimpleName(), paramType, method.sym);
+        return addParameter((Name) typeParameter.getSimpleName(), paramType, method);
+    }
+
+    public JCTree.JCVariableDecl addOrdinalParameter(Name name, JCTree.JCMethodDecl method) {
+        return addParameter(name, symtab.intType, method);
+    }
+
+    private JCTree.JCVariableDecl addParameter(Name name, Type paramType, JCTree.JCMethodDecl method) {
+        var param = maker.at(method.pos).Param(name, paramType, method.sym);
         param.sym.adr = 0;
+        param.sym.pos = param.pos;
         method.params = method.params.prepend(param);
 
         var methodSymbol = (Symbol.MethodSymbol) method.sym;
@@ -0,0 +1,130 @@
+package it.auties.reified.simplified;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.comp.AttrContext;
+import com.sun.tools.javac.comp.Env;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeTranslator;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Names;
+import it.auties.reified.model.ReifiedDeclaration;
+import it.auties.reified.runtime.ReifiedSwitch;
+import it.auties.reified.scanner.OrdinalInvocationScanner;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Replaces the invocations of ReifiedSwitch#ordinal(T, A.class, ...) in the body of a reified method with int parameters, which follow the class of T.
+// Each call site passes the position of its type among the cases as a constant, so a switch on the parameter is compiled to a tableswitch.
+// Classes and inline methods keep the invocations: the first store the class in a field for all of their methods, while the second are copied with a class literal.
+public class SimpleOrdinals {
+    private static final String PARAMETER_PREFIX = "reified$ordinal$";
+    private static final String ORDINAL_NAME = "ordinal";
+
+    private final TreeMaker maker;
+    private final Names names;
+    private final SimpleTypes simpleTypes;
+    private final SimpleMaker simpleMaker;
+    private final Map<Symbol.TypeVariableSymbol, List<List<Type>>> ordinals;
+    public SimpleOrdinals(TreeMaker maker, Names names, SimpleTypes simpleTypes, SimpleMaker simpleMaker) {
+        this.maker = maker;
+        this.names = names;
+        this.simpleTypes = simpleTypes;
+        this.simpleMaker = simpleMaker;
+        this.ordinals = new HashMap<>();
+    }
+
+    // Must run before the class parameter is added, as the parameters are prepended
+    public void processMembers(ReifiedDeclaration declaration) {
+        var typeParameter = declaration.typeParameter();
+        if (declaration.isClass() || simpleTypes.inline(typeParameter) || ordinals.containsKey(typeParameter)) {
+            return;
+        }
+
+        var method = declaration.methods().head;
+        if (method.body == null) {
+            return;
+        }
+
+        var env = simpleTypes.findMethodEnv(method, simpleTypes.findClassEnv(declaration.enclosingClass()));
+        var resolved = new LinkedHashMap<JCTree.JCMethodInvocation, List<Type>>();
+        new OrdinalInvocationScanner(typeParameter.name).scan(method.body)
+                .forEach(invocation -> resolveCases(invocation, env).ifPresent(cases -> resolved.put(invocation, cases)));
+        if (resolved.isEmpty()) {
+            return;
+        }
+
+        var invocations = List.from(resolved.keySet());
+        var cases = List.from(resolved.values());
+        var replacements = new HashMap<JCTree.JCMethodInvocation, JCTree.JCVariableDecl>();
+        for (var index = invocations.size() - 1; index >= 0; index--) {
+            var name = names.fromString(PARAMETER_PREFIX + typeParameter.name + "$" + index);
+            replacements.put(invocations.get(index), simpleMaker.addOrdinalParameter(name, method));
+        }
+
+        method.body = new OrdinalReplacer(maker, replacements).translate(method.body);
+        ordinals.put(typeParameter, cases);
+    }
+
+    // An invocation with a case that cannot be resolved is left as it is, so that javac reports the missing type
+    private Optional<List<Type>> resolveCases(JCTree.JCMethodInvocation invocation, Env<AttrContext> env) {
+        var cases = new ListBuffer<Type>();
+        for (var literal : invocation.args.tail) {
+            var type = simpleTypes.inferReifiedType(((JCTree.JCFieldAccess) literal).selected, env);
+            if (type.isEmpty()) {
+                return Optional.empty();
+            }
+
+            cases.add(type.get());
+        }
+
+        return Optional.of(cases.toList());
+    }
+
+    // Concrete types are compared with the cases at compile time, while type variables compute their ordinals when the method is invoked
+    public List<JCTree.JCExpression> createArguments(Symbol.TypeVariableSymbol typeParameter, Type reifiedType, Supplier<JCTree.JCExpression> literal) {
+        return ordinals.getOrDefault(typeParameter, List.nil())
+                .map(cases -> simpleTypes.generic(reifiedType) ? createInvocation(cases, literal.get()) : createConstant(cases, reifiedType));
+    }
+
+    private JCTree.JCExpression createConstant(List<Type> cases, Type reifiedType) {
+        var ordinal = IntStream.range(0, cases.size())
+                .filter(index -> simpleTypes.sameType(cases.get(index), reifiedType))
+                .findFirst()
+                .orElse(-1);
+        return maker.Literal(ordinal);
+    }
+
+    private JCTree.JCExpression createInvocation(List<Type> cases, JCTree.JCExpression literal) {
+        var helper = (Symbol) simpleTypes.toTypeElement(ReifiedSwitch.class);
+        var arguments = cases.map(simpleMaker::classLiteral).prepend(literal);
+        return maker.Apply(List.nil(), maker.Select(maker.QualIdent(helper), names.fromString(ORDINAL_NAME)), arguments);
+    }
+
+    private static class OrdinalReplacer extends TreeTranslator {
+        private final TreeMaker maker;
+        private final Map<JCTree.JCMethodInvocation, JCTree.JCVariableDecl> replacements;
+        private OrdinalReplacer(TreeMaker maker, Map<JCTree.JCMethodInvocation, JCTree.JCVariableDecl> replacements) {
+            this.maker = maker;
+            this.replacements = replacements;
+        }
+
+        @Override
+        public void visitApply(JCTree.JCMethodInvocation tree) {
+            var parameter = replacements.get(tree);
+            if (parameter == null) {
+                super.visitApply(tree);
+                return;
+            }
+
+            this.result = maker.at(tree.pos).Ident(parameter.sym);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package it.auties.reified.simplified;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Names;
+import it.auties.reified.runtime.ReifiedProfile;
+
+// Wraps the classes passed by the rewritten call sites in ReifiedProfile#record when the reified.profile option is enabled.
+// A site is named after its class, its position in the source and the declaration it invokes, for example com.example.Main:12:16 com.example.JsonUtils#fromJson(java.lang.String)<T>.
+// When the option is disabled the classes are passed as they are, so the compiled code doesn't change.
+public class SimpleProfiler {
+    private static final String RECORD_NAME = "record";
+
+    private final TreeMaker maker;
+    private final Names names;
+    private final SimpleTypes simpleTypes;
+    private final boolean enabled;
+    public SimpleProfiler(TreeMaker maker, Names names, SimpleTypes simpleTypes, boolean enabled) {
+        this.maker = maker;
+        this.names = names;
+        this.simpleTypes = simpleTypes;
+        this.enabled = enabled;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    // The type argument is explicit, as javac caches the types of the arguments whose type arguments are inferred by their position:
+    // this invocation would share it with the other arguments created for the site, like the runtime type ordinals.
+    public JCTree.JCExpression profile(JCTree.JCCompilationUnit unit, JCTree.JCClassDecl enclosingClass, JCTree site, String declaration, Type type, JCTree.JCExpression literal) {
+        var position = TreeInfo.getStartPos(site);
+        var name = enclosingClass.sym.flatName() + ":" + unit.lineMap.getLineNumber(position) + ":" + unit.lineMap.getColumnNumber(position) + " " + declaration;
+        var helper = (Symbol) simpleTypes.toTypeElement(ReifiedProfile.class);
+        var typeArgument = simpleTypes.generic(type) ? type : simpleTypes.boxed(simpleTypes.erase(type));
+        return maker.at(position).Apply(List.of(maker.Type(typeArgument)), maker.Select(maker.QualIdent(helper), names.fromString(RECORD_NAME)), List.of(maker.Literal(name), literal));
+    }
+}
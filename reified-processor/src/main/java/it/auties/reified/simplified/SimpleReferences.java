@@ -0,0 +1,156 @@
+package it.auties.reified.simplified;
+
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Kinds;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.resources.CompilerProperties.Errors;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeTranslator;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Log;
+import com.sun.tools.javac.util.Names;
+import it.auties.reified.scanner.AssignmentScanner;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+// Replaces the method references to reified methods with lambdas that invoke said methods, as a reference cannot pass the class.
+// The lambda only captures what the reference already did(its receiver), so a reference to a static method or an unbound one is still compiled to a non capturing lambda:
+// javac creates a single instance of it, which is reused by every evaluation.
+public class SimpleReferences {
+    private static final String PARAMETER_PREFIX = "reified$argument$";
+
+    private final TreeMaker maker;
+    private final Names names;
+    private final Log log;
+    private final SimpleTypes simpleTypes;
+    private final Map<JCTree.JCCompilationUnit, Map<JCTree.JCMemberReference, JCTree.JCLambda>> lambdas;
+    private final Map<JCTree.JCMemberReference, JCTree.JCCompilationUnit> rejected;
+    public SimpleReferences(TreeMaker maker, Names names, Log log, SimpleTypes simpleTypes) {
+        this.maker = maker;
+        this.names = names;
+        this.log = log;
+        this.simpleTypes = simpleTypes;
+        this.lambdas = new LinkedHashMap<>();
+        this.rejected = new LinkedHashMap<>();
+    }
+
+    // Every reified type parameter of the method prepends its class to the same invocation.
+    // The scope is the method, or the class for initializers, that encloses the reference.
+    // A reference whose receiver cannot be moved into a lambda isn't replaced, and is reported as an error once report is called.
+    public Optional<JCTree.JCMethodInvocation> findOrCreate(JCTree.JCCompilationUnit unit, JCTree scope, JCTree.JCMemberReference reference) {
+        var unitLambdas = lambdas.computeIfAbsent(unit, ignored -> new HashMap<>());
+        var lambda = unitLambdas.get(reference);
+        if (lambda != null) {
+            return Optional.of((JCTree.JCMethodInvocation) lambda.getBody());
+        }
+
+        if (!checkReceiver(scope, reference)) {
+            rejected.put(reference, unit);
+            return Optional.empty();
+        }
+
+        var created = createLambda(reference);
+        unitLambdas.put(reference, created);
+        return Optional.of((JCTree.JCMethodInvocation) created.getBody());
+    }
+
+    private JCTree.JCLambda createLambda(JCTree.JCMemberReference reference) {
+        var descriptor = simpleTypes.findDescriptor(reference.type)
+                .orElseThrow(() -> new IllegalArgumentException("Cannot rewrite method reference, unknown functional interface: " + reference));
+        var parameters = IntStream.range(0, descriptor.getParameterTypes().size())
+                .mapToObj(index -> maker.at(reference.pos).VarDef(maker.Modifiers(Flags.PARAMETER), names.fromString(PARAMETER_PREFIX + index), null, null))
+                .collect(List.collector());
+        var arguments = parameters.stream()
+                .map(parameter -> (JCTree.JCExpression) maker.at(reference.pos).Ident(parameter.name))
+                .collect(List.collector());
+        return maker.at(reference.pos).Lambda(parameters, createInvocation(reference, arguments));
+    }
+
+    private JCTree.JCMethodInvocation createInvocation(JCTree.JCMemberReference reference, List<JCTree.JCExpression> arguments) {
+        switch (reference.kind) {
+            case STATIC:
+                return maker.at(reference.pos).Apply(reference.typeargs, maker.Select(reference.expr, reference.name), arguments);
+            case UNBOUND:
+                return maker.at(reference.pos).Apply(reference.typeargs, maker.Select(arguments.head, reference.name), arguments.tail);
+            case SUPER:
+            case BOUND:
+                return maker.at(reference.pos).Apply(reference.typeargs, maker.Select(reference.expr, reference.name), arguments);
+            default:
+                throw new IllegalArgumentException("Cannot rewrite method reference, unsupported kind: " + reference.kind);
+        }
+    }
+
+    // A reference evaluates its receiver once, while a lambda evaluates it on every invocation: only receivers that cannot change are moved into the lambda.
+    // A null receiver is reported when the lambda is invoked instead of when the reference is evaluated.
+    private boolean checkReceiver(JCTree scope, JCTree.JCMemberReference reference) {
+        if (reference.kind != JCTree.JCMemberReference.ReferenceKind.BOUND && reference.kind != JCTree.JCMemberReference.ReferenceKind.SUPER) {
+            return true;
+        }
+
+        var receiver = TreeInfo.skipParens(reference.expr);
+        var name = TreeInfo.name(receiver);
+        if (name == names._this || name == names._super) {
+            return true;
+        }
+
+        var symbol = TreeInfo.symbol(receiver);
+        return symbol instanceof Symbol.VarSymbol && isEffectivelyFinal(scope, (Symbol.VarSymbol) symbol);
+    }
+
+    // Fields must be final, while a local variable or a parameter must not be assigned after its initialization
+    private boolean isEffectivelyFinal(JCTree scope, Symbol.VarSymbol variable) {
+        if ((variable.flags() & Flags.FINAL) != 0) {
+            return true;
+        }
+
+        if (variable.owner.kind != Kinds.Kind.MTH) {
+            return false;
+        }
+
+        var assignments = new AssignmentScanner(variable).scan(scope);
+        var declaration = TreeInfo.declarationFor(variable, scope);
+        var initialized = (variable.flags() & Flags.PARAMETER) != 0 || (declaration instanceof JCTree.JCVariableDecl && ((JCTree.JCVariableDecl) declaration).init != null);
+        return assignments == (initialized ? 0 : 1);
+    }
+
+    public void replace() {
+        lambdas.forEach((unit, unitLambdas) -> new ReferenceReplacer(unitLambdas).translate(unit));
+        lambdas.clear();
+    }
+
+    public void report() {
+        rejected.forEach((reference, unit) -> {
+            var previous = log.useSource(unit.sourcefile);
+            try {
+                log.error(reference, Errors.ProcMessager("Cannot pass the type to a method reference whose receiver is an expression: assign the receiver to an effectively final variable or use a lambda"));
+            } finally {
+                log.useSource(previous);
+            }
+        });
+        rejected.clear();
+    }
+
+    private static class ReferenceReplacer extends TreeTranslator {
+        private final Map<JCTree.JCMemberReference, JCTree.JCLambda> lambdas;
+        private ReferenceReplacer(Map<JCTree.JCMemberReference, JCTree.JCLambda> lambdas) {
+            this.lambdas = lambdas;
+        }
+
+        @Override
+        public void visitReference(JCTree.JCMemberReference tree) {
+            var lambda = lambdas.get(tree);
+            if (lambda == null) {
+                super.visitReference(tree);
+                return;
+            }
+
+            this.result = lambda;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package it.auties.reified.simplified;
+
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.comp.AttrContext;
+import com.sun.tools.javac.comp.Env;
+import com.sun.tools.javac.comp.Resolve;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Names;
+import it.auties.reified.runtime.ReifiedRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Creates the static registries that ReifiedRegistry#all() and ReifiedRegistry#create() are bound to.
+// A registry is a field of the top level class of the invocation, shared by every invocation for the same type in said class:
+// it lists the concrete classes of the compilation that extend the type and creates the ones with a no args constructor through a constructor reference, so no reflection is needed.
+public class SimpleRegistry {
+    private static final String FIELD_PREFIX = "reified$registry$";
+
+    private final TreeMaker maker;
+    private final Resolve resolve;
+    private final Names names;
+    private final SimpleTypes simpleTypes;
+    private final Map<Symbol.ClassSymbol, Map<Symbol.TypeSymbol, Symbol.VarSymbol>> registries;
+    public SimpleRegistry(TreeMaker maker, Resolve resolve, Names names, SimpleTypes simpleTypes) {
+        this.maker = maker;
+        this.resolve = resolve;
+        this.names = names;
+        this.simpleTypes = simpleTypes;
+        this.registries = new HashMap<>();
+    }
+
+    public JCTree.JCExpression findOrCreate(JCTree.JCClassDecl topLevelClass, Type type, List<JCTree.JCClassDecl> roots) {
+        var classRegistries = registries.computeIfAbsent(topLevelClass.sym, ignored -> new HashMap<>());
+        var registry = classRegistries.computeIfAbsent(type.tsym, ignored -> create(topLevelClass, type, roots, classRegistries.size()));
+        return maker.Ident(registry);
+    }
+
+    private Symbol.VarSymbol create(JCTree.JCClassDecl topLevelClass, Type type, List<JCTree.JCClassDecl> roots, int index) {
+        var env = simpleTypes.findClassEnv(topLevelClass);
+        var implementations = new ListBuffer<Symbol.ClassSymbol>();
+        roots.forEach(root -> findImplementations(root, type, env, implementations));
+        var registryType = simpleTypes.createTypeWithParameters(ReifiedRegistry.class, type);
+        var flags = (topLevelClass.sym.flags() & Flags.INTERFACE) != 0 ? Flags.PUBLIC | Flags.STATIC | Flags.FINAL : Flags.PRIVATE | Flags.STATIC | Flags.FINAL;
+        var name = names.fromString(FIELD_PREFIX + index);
+        var field = maker.at(topLevelClass.pos)
+                .VarDef(maker.Modifiers(flags), name, maker.Type(registryType), createInitializer(type, implementations.toList(), env));
+        field.sym = new Symbol.VarSymbol(flags, name, registryType, topLevelClass.sym);
+        field.sym.pos = field.pos;
+        topLevelClass.sym.members().enter(field.sym);
+        topLevelClass.defs = topLevelClass.defs.prepend(field);
+        return field.sym;
+    }
+
+    // Local and anonymous classes cannot be named, so only top level and member classes are listed
+    private void findImplementations(JCTree.JCClassDecl clazz, Type type, Env<AttrContext> env, ListBuffer<Symbol.ClassSymbol> implementations) {
+        if (clazz.sym == null) {
+            return;
+        }
+
+        if (isImplementation(clazz.sym, type, env)) {
+            implementations.add(clazz.sym);
+        }
+
+        clazz.getMembers()
+                .stream()
+                .filter(member -> member.hasTag(JCTree.Tag.CLASSDEF))
+                .forEach(member -> findImplementations((JCTree.JCClassDecl) member, type, env, implementations));
+    }
+
+    private boolean isImplementation(Symbol.ClassSymbol clazz, Type type, Env<AttrContext> env) {
+        return (clazz.flags() & (Flags.ABSTRACT | Flags.INTERFACE)) == 0
+                && simpleTypes.subtype(clazz.type, type)
+                && resolve.isAccessible(env, clazz);
+    }
+
+    private JCTree.JCExpression createInitializer(Type type, List<Symbol.ClassSymbol> implementations, Env<AttrContext> env) {
+        var classes = implementations.stream()
+                .map(implementation -> maker.ClassLiteral(simpleTypes.erase(implementation.type)))
+                .collect(List.collector());
+        var factories = implementations.stream()
+                .filter(implementation -> hasFactory(implementation, env))
+                .map(implementation -> (JCTree.JCExpression) maker.Reference(JCTree.JCMemberReference.ReferenceMode.NEW, names.init, maker.QualIdent(implementation), null))
+                .collect(List.collector());
+        var wildcard = (Type) simpleTypes.createWildcardType();
+        var classesArray = maker.NewArray(maker.Type(simpleTypes.createTypeWithParameters(Class.class, wildcard)), List.nil(), classes);
+        var factoriesArray = maker.NewArray(maker.Type(simpleTypes.createTypeWithParameters(Supplier.class, wildcard)), List.nil(), factories);
+        var registryClass = (Symbol) simpleTypes.toTypeElement(ReifiedRegistry.class);
+        var factoryMethod = maker.Select(maker.QualIdent(registryClass), names.fromString("of"));
+        return maker.Apply(List.nil(), factoryMethod, List.of(maker.ClassLiteral(simpleTypes.erase(type)), classesArray, factoriesArray));
+    }
+
+    // Inner classes need an enclosing instance, so they cannot be created from a static initializer
+    private boolean hasFactory(Symbol.ClassSymbol implementation, Env<AttrContext> env) {
+        if (implementation.hasOuterInstance()) {
+            return false;
+        }
+
+        for (var constructor : implementation.members().getSymbolsByName(names.init)) {
+            var method = (Symbol.MethodSymbol) constructor;
+            if (method.getParameters().isEmpty() && resolve.isAccessible(env, implementation.type, method)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package it.auties.reified.simplified;
+
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symtab;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+import it.auties.reified.runtime.ReifiedSerialization;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+// Makes the class fields of serializable classes transient when the reified.transient option is enabled.
+// The fields are written by a generated writeObject method as the name of their type and restored by a generated readObject method,
+// so they cannot be final. Both methods are shared by all the fields of a class.
+// Records are serialized through their canonical constructor and classes that already declare one of the two methods are left as they are.
+public class SimpleSerialization {
+    private static final String WRITE_METHOD = "writeObject";
+    private static final String READ_METHOD = "readObject";
+    private static final String STREAM_PARAMETER = "stream";
+
+    private final TreeMaker maker;
+    private final Symtab symtab;
+    private final Names names;
+    private final SimpleTypes simpleTypes;
+    private final boolean enabled;
+    private final Map<Symbol.ClassSymbol, SerializationMethods> methods;
+    public SimpleSerialization(TreeMaker maker, Symtab symtab, Names names, SimpleTypes simpleTypes, boolean enabled) {
+        this.maker = maker;
+        this.symtab = symtab;
+        this.names = names;
+        this.simpleTypes = simpleTypes;
+        this.enabled = enabled;
+        this.methods = new HashMap<>();
+    }
+
+    public boolean transientField(JCTree.JCClassDecl clazz) {
+        if (!enabled || simpleTypes.record(clazz.getModifiers()) || (clazz.sym.flags() & Flags.INTERFACE) != 0) {
+            return false;
+        }
+
+        if (methods.containsKey(clazz.sym)) {
+            return true;
+        }
+
+        var type = clazz.sym.type;
+        return simpleTypes.subtype(type, simpleTypes.createTypeWithParameters(Serializable.class))
+                && !simpleTypes.subtype(type, simpleTypes.createTypeWithParameters(Externalizable.class))
+                && !declares(clazz.sym, WRITE_METHOD)
+                && !declares(clazz.sym, READ_METHOD);
+    }
+
+    private boolean declares(Symbol.ClassSymbol clazz, String name) {
+        return clazz.members()
+                .getSymbolsByName(names.fromString(name))
+                .iterator()
+                .hasNext();
+    }
+
+    public void addField(JCTree.JCClassDecl clazz, JCTree.JCVariableDecl field) {
+        var serializationMethods = methods.computeIfAbsent(clazz.sym, ignored -> createMethods(clazz));
+        serializationMethods.write.body.stats = serializationMethods.write.body.stats.append(createWriteStatement(clazz, serializationMethods.write, field));
+        serializationMethods.read.body.stats = serializationMethods.read.body.stats.append(createReadStatement(clazz, serializationMethods.read, field));
+    }
+
+    private SerializationMethods createMethods(JCTree.JCClassDecl clazz) {
+        var write = createMethod(clazz, WRITE_METHOD, ObjectOutputStream.class, List.of(simpleTypes.createTypeWithParameters(IOException.class)));
+        var read = createMethod(clazz, READ_METHOD, ObjectInputStream.class, List.of(simpleTypes.createTypeWithParameters(IOException.class), simpleTypes.createTypeWithParameters(ClassNotFoundException.class)));
+        return new SerializationMethods(write, read);
+    }
+
+    private JCTree.JCMethodDecl createMethod(JCTree.JCClassDecl clazz, String name, Class<?> stream, List<Type> thrown) {
+        var streamType = simpleTypes.createTypeWithParameters(stream);
+        var methodType = new Type.MethodType(List.of(streamType), symtab.voidType, thrown, symtab.methodClass);
+        var methodName = names.fromString(name);
+        var methodSymbol = new Symbol.MethodSymbol(Flags.PRIVATE, methodName, methodType, clazz.sym);
+        var parameter = new Symbol.VarSymbol(Flags.PARAMETER, names.fromString(STREAM_PARAMETER), streamType, methodSymbol);
+        parameter.pos = clazz.pos;
+        methodSymbol.params = List.of(parameter);
+        var defaultMethod = stream == ObjectOutputStream.class ? "defaultWriteObject" : "defaultReadObject";
+        var defaultCall = maker.at(clazz.pos).Exec(maker.Apply(List.nil(), maker.Select(maker.Ident(parameter), names.fromString(defaultMethod)), List.nil()));
+        var method = maker.MethodDef(methodSymbol, maker.Block(0, List.of(defaultCall)));
+        clazz.sym.members().enter(methodSymbol);
+        clazz.defs = clazz.defs.append(method);
+        return method;
+    }
+
+    private JCTree.JCStatement createWriteStatement(JCTree.JCClassDecl clazz, JCTree.JCMethodDecl write, JCTree.JCVariableDecl field) {
+        var stream = maker.at(clazz.pos).Ident(write.params.head.sym);
+        return maker.Exec(maker.Apply(List.nil(), createHelper("writeType"), List.of(stream, createFieldAccess(clazz, field.getName()))));
+    }
+
+    private JCTree.JCStatement createReadStatement(JCTree.JCClassDecl clazz, JCTree.JCMethodDecl read, JCTree.JCVariableDecl field) {
+        var stream = maker.at(clazz.pos).Ident(read.params.head.sym);
+        var owner = maker.ClassLiteral(simpleTypes.erase(clazz.sym.type));
+        var type = maker.Apply(List.nil(), createHelper("readType"), List.of(stream, owner));
+        return maker.Exec(maker.Assign(createFieldAccess(clazz, field.getName()), type));
+    }
+
+    private JCTree.JCExpression createFieldAccess(JCTree.JCClassDecl clazz, Name name) {
+        return maker.Select(maker.This(clazz.sym.type), name);
+    }
+
+    private JCTree.JCExpression createHelper(String name) {
+        var helper = (Symbol) simpleTypes.toTypeElement(ReifiedSerialization.class);
+        return maker.Select(maker.QualIdent(helper), names.fromString(name));
+    }
+
+    private static final class SerializationMethods {
+        private final JCTree.JCMethodDecl write;
+        private final JCTree.JCMethodDecl read;
+        private SerializationMethods(JCTree.JCMethodDecl write, JCTree.JCMethodDecl read) {
+            this.write = write;
+            this.read = read;
+        }
+    }
+}
@@ -0,0 +1,630 @@
+package it.auties.reified.simplified;
+
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.code.*;
+import com.sun.tools.javac.comp.*;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.Assert;
+import com.sun.tools.javac.util.List;
+import it.auties.reified.annotation.Reified;
+import it.auties.reified.model.ReifiedCall;
+import it.auties.reified.util.ReifiedStats;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.sun.tools.javac.code.TypeTag.ARRAY;
+import static com.sun.tools.javac.code.TypeTag.TYPEVAR;
+import static com.sun.tools.javac.code.TypeTag.WILDCARD;
+import static com.sun.tools.javac.tree.JCTree.Tag.*;
+
+public class SimpleTypes {
+    private final ProcessingEnvironment environment;
+    private final Types types;
+    private final Attr attr;
+    private final Enter enter;
+    private final MemberEnter memberEnter;
+    private final ReifiedStats stats;
+    private final Map<Class<?>, TypeElement> typeElements;
+    private final Map<java.util.List<Object>, Type> declaredTypes;
+    private final Map<InferenceKey, Type> inferredTypes;
+    private final Map<InferenceKey, String> fallbackReasons;
+
+    public SimpleTypes(ProcessingEnvironment environment, Types types, Attr attr, Enter enter, MemberEnter memberEnter, ReifiedStats stats) {
+        this.environment = environment;
+        this.types = types;
+        this.attr = attr;
+        this.enter = enter;
+        this.memberEnter = memberEnter;
+        this.stats = stats;
+        this.typeElements = new HashMap<>();
+        this.declaredTypes = new HashMap<>();
+        this.inferredTypes = new HashMap<>();
+        this.fallbackReasons = new HashMap<>();
+    }
+
+    public Type createTypeWithParameters(Class<?> clazz, Element parameter) {
+        return createTypeWithParameters(clazz, parameter.asType());
+    }
+
+    // Declared types are interned by class and parameters, javac's types compare parameters by identity so the same type variable always hits the cache.
+    // The same instance can be shared by multiple trees and symbols as javac never mutates a declared type after it's been completed.
+    public Type createTypeWithParameters(Class<?> clazz, TypeMirror... parameter) {
+        var key = new ArrayList<Object>(parameter.length + 1);
+        key.add(clazz);
+        key.addAll(Arrays.asList(parameter));
+        var cached = declaredTypes.get(key);
+        if (cached != null) {
+            stats.increment("Declared type cache hits");
+            return cached;
+        }
+
+        stats.increment("Declared type cache misses");
+        var types = environment.getTypeUtils();
+        var result = (Type) types.getDeclaredType(toTypeElement(clazz), parameter);
+        declaredTypes.put(key, result);
+        return result;
+    }
+
+    public TypeElement toTypeElement(Class<?> clazz) {
+        var cached = typeElements.get(clazz);
+        if (cached != null) {
+            stats.increment("Type element cache hits");
+            return cached;
+        }
+
+        stats.increment("Type element cache misses");
+        var type = environment.getElementUtils().getTypeElement(clazz.getName());
+        Assert.checkNonNull(type, "Reified Methods: Cannot compile as the type element associated with the class " + clazz.getName() + " doesn't exist!");
+        typeElements.put(clazz, type);
+        return type;
+    }
+
+    // Resolves a class literal type written by the plan cache: the erasure of the class named canonicalName wrapped in the given number of arrays
+    public Optional<Type> findType(String canonicalName, int dimensions) {
+        var element = (Symbol) environment.getElementUtils().getTypeElement(canonicalName);
+        if (element == null) {
+            return Optional.empty();
+        }
+
+        var type = element.erasure(types);
+        for (var dimension = 0; dimension < dimensions; dimension++) {
+            type = types.makeArrayType(type);
+        }
+
+        return Optional.of(type);
+    }
+
+    public void resolveEnv(Env<AttrContext> attrContextEnv) {
+        attr.attrib(attrContextEnv);
+    }
+
+    public void resolveClass(JCTree.JCClassDecl clazz) {
+        attr.attribClass(clazz.pos(), clazz.sym);
+    }
+
+    public List<Type> resolveTypes(List<? extends JCTree> expressions, JCTree.JCClassDecl clazz) {
+        var env = findClassEnv(clazz);
+        return expressions.stream()
+                .map(type -> attr.attribExpr(type, env))
+                .collect(List.collector());
+    }
+
+    public boolean valid(Type type) {
+        return !type.isErroneous();
+    }
+
+    public Optional<Env<AttrContext>> findClassEnv(Tree tree) {
+        if (!(tree instanceof JCTree.JCClassDecl)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(findClassEnv((JCTree.JCClassDecl) tree));
+    }
+
+    public Env<AttrContext> findClassEnv(JCTree.JCClassDecl enclosingClass) {
+        return enter.getClassEnv(enclosingClass.sym.asType().asElement());
+    }
+
+    public Env<AttrContext> findMethodEnv(JCTree.JCMethodDecl method, Env<AttrContext> env) {
+        if (method == null) {
+            return env;
+        }
+
+        return memberEnter.getMethodEnv(method, env);
+    }
+
+    public Type commonType(List<Type> input) {
+        var type = isHomogeneous(input) ? input.head : types.lub(input);
+        if (type.getTag() == TypeTag.BOT || !valid(type)) {
+            return null;
+        }
+
+        return type;
+    }
+
+    // Large varargs invocations usually pass arguments of the same type, whose least upper bound is the type itself
+    private boolean isHomogeneous(List<Type> input) {
+        return !input.isEmpty() && input.stream()
+                .allMatch(type -> types.isSameType(type, input.head));
+    }
+
+    public Type erase(Symbol typeVariableSymbol) {
+        return typeVariableSymbol.erasure(types);
+    }
+
+    public Type erase(Type type) {
+        return types.erasure(type);
+    }
+
+    public boolean erased(Type type) {
+        return types.isSameType(type, types.erasure(type));
+    }
+
+    public Type boxed(Type type) {
+        return types.boxedTypeOrType(type);
+    }
+
+    public Type substitute(Type type, Symbol.TypeVariableSymbol typeVariable, Type replacement) {
+        return types.subst(type, List.of(typeVariable.type), List.of(replacement));
+    }
+
+    public boolean generic(Type type) {
+        return type.getTag() == TYPEVAR;
+    }
+
+    // Whether the type can be written in a source: captured wildcards and intersections cannot
+    public boolean denotable(Type type) {
+        if (type.isCompound() || type instanceof Type.CapturedType) {
+            return false;
+        }
+
+        if (type.getTag() == WILDCARD) {
+            var bound = ((Type.WildcardType) type).type;
+            return bound == null || denotable(bound);
+        }
+
+        if (type.getTag() == ARRAY) {
+            return denotable(types.elemtype(type));
+        }
+
+        return type.getTypeArguments().stream().allMatch(this::denotable);
+    }
+
+    public boolean notWildCard(Type type) {
+        return type.getTag() != WILDCARD;
+    }
+
+    public Type resolveWildCard(Type type) {
+        if(type == null){
+            return null;
+        }
+
+        if (notWildCard(type)) {
+            return type;
+        }
+
+        return ((Type.WildcardType) type).type;
+    }
+
+    public List<Type> eraseTypeVariableFromTypeParameters(Symbol.TypeVariableSymbol typeParameter, List<Symbol.TypeVariableSymbol> parameters, List<JCTree.JCExpression> arguments, JCTree.JCClassDecl enclosingClass) {
+        var env = findClassEnv(enclosingClass);
+        return IntStream.range(0, parameters.size())
+                .limit(arguments.size())
+                .filter(index -> Objects.equals(parameters.get(index), typeParameter))
+                .mapToObj(arguments::get)
+                .map(arg -> inferReifiedType(arg, env))
+                .flatMap(Optional::stream)
+                .map(this::parseArgument)
+                .collect(List.collector());
+    }
+
+    public List<Type> eraseTypeVariableFromArguments(Symbol.TypeVariableSymbol typeParameter, List<Symbol.VarSymbol> parameters, List<Type> arguments, boolean varArgs) {
+        return IntStream.range(0, arguments.size())
+                .filter(index -> matchTypeVariableToParameter(typeParameter, parameters, index, varArgs))
+                .mapToObj(arguments::get)
+                .map(this::parseArgument)
+                .collect(List.collector());
+    }
+
+    private boolean matchTypeVariableToParameter(Symbol.TypeVariableSymbol typeParameter, List<Symbol.VarSymbol> parameters, int index, boolean varArgs) {
+        var param = getVarArgsParam(parameters, index, varArgs);
+        if (types.isArray(param)) {
+            var arrayType = (Type.ArrayType) param;
+            return typeParameter.equals(arrayType.getComponentType().asElement());
+        }
+
+        return typeParameter.equals(param.asElement());
+    }
+
+    private Type getVarArgsParam(List<Symbol.VarSymbol> parameters, int index, boolean varArgs) {
+        if (!varArgs || index < parameters.size() - 1) {
+            return parameters.get(index).asType();
+        }
+
+        return parameters.last().asType();
+    }
+
+    private Type parseArgument(Type type) {
+        if (types.isArray(type)) {
+            var arrayType = (Type.ArrayType) type;
+            return boxed(arrayType.getComponentType());
+        }
+
+        return boxed(type);
+    }
+
+    public Optional<Type> inferReifiedType(JCTree argument, Env<AttrContext> env) {
+        return Optional.ofNullable(attr.attribType(argument, env)).filter(this::valid);
+    }
+
+    public List<Type> flattenGenericType(Type type) {
+        if (!type.isParameterized()) {
+            return List.of(type);
+        }
+
+        return flattenGenericType(type.getTypeArguments());
+    }
+
+    public List<Type> flattenGenericType(List<? extends Type> types) {
+        return types.stream()
+                .map(this::flattenGenericType)
+                .flatMap(Collection::stream)
+                .collect(List.collector());
+    }
+
+    public Optional<Type> resolveImplicitType(Iterator<Type> invocationIterator, Iterator<Type> genericIterator, Symbol.TypeVariableSymbol typeVariable) {
+        while (invocationIterator.hasNext() && genericIterator.hasNext()) {
+            var invocation = invocationIterator.next();
+            var generic = genericIterator.next();
+            if (!generic.tsym.equals(typeVariable)) {
+                continue;
+            }
+
+            return Optional.of(invocation);
+        }
+
+        return Optional.empty();
+    }
+
+    public boolean subtype(Type type, Type supertype) {
+        return types.isSubtype(types.erasure(type), types.erasure(supertype));
+    }
+
+    public boolean sameType(Type first, Type second) {
+        return types.isSameType(types.erasure(first), types.erasure(second));
+    }
+
+    public TypeMirror createWildcardType() {
+        return environment.getTypeUtils().getWildcardType(null, null);
+    }
+
+    public boolean assignable(Type assignable, Type assigned) {
+        return types.isSubtype(assignable, assigned);
+    }
+
+    public boolean reified(Symbol typeSymbol) {
+        return typeSymbol.getAnnotation(Reified.class) != null;
+    }
+
+    public boolean inline(Symbol typeSymbol) {
+        var annotation = typeSymbol.getAnnotation(Reified.class);
+        return annotation != null && annotation.inline();
+    }
+
+    public boolean record(JCTree.JCModifiers mods) {
+        return record(mods.flags);
+    }
+
+    public boolean record(long flags) {
+        return (flags & Flags.RECORD) != 0;
+    }
+
+    public boolean compactConstructor(JCTree.JCMethodDecl constructor) {
+        return (constructor.mods.flags & Flags.COMPACT_RECORD_CONSTRUCTOR) != 0;
+    }
+
+    public Type inferReifiedType(ReifiedCall call) {
+        switch (call.invocation().getTag()){
+            case APPLY:
+                var methodInvocation = (JCTree.JCMethodInvocation) call.invocation();
+                var invocationTypeArguments = methodInvocation.getTypeArguments();
+                if (invocationTypeArguments != null && !invocationTypeArguments.isEmpty()) {
+                    var deduced = eraseTypeVariableFromTypeParameters(call.typeVariable(), call.invoked().getTypeParameters(), invocationTypeArguments, call.enclosingClass());
+                    Assert.check(!deduced.isEmpty(), "Cannot resolve method type for explicit type variable");
+                    return resolveWildCard(deduced.head);
+                }
+
+                return inferImplicitReifiedType(call);
+            case NEWCLASS:
+                var classInitialization = (JCTree.JCNewClass) call.invocation();
+                var invokedTypeArgs = call.invoked().enclClass().getTypeParameters();
+                var invocationTypeArgs = findTypeArguments(classInitialization.getIdentifier());
+                if (!invocationTypeArgs.isEmpty()) {
+                    var deduced = eraseTypeVariableFromTypeParameters(call.typeVariable(), invokedTypeArgs, invocationTypeArgs, call.enclosingClass());
+                    Assert.check(!deduced.isEmpty(), "Cannot resolve class type for explicit type variable");
+                    return resolveWildCard(deduced.head);
+                }
+
+                return inferImplicitReifiedType(call);
+            case REFERENCE:
+                var reference = (JCTree.JCMemberReference) call.invocation();
+                var referenceTypeArguments = reference.getTypeArguments();
+                if (referenceTypeArguments != null && !referenceTypeArguments.isEmpty()) {
+                    var deduced = eraseTypeVariableFromTypeParameters(call.typeVariable(), call.invoked().getTypeParameters(), List.from(referenceTypeArguments), call.enclosingClass());
+                    Assert.check(!deduced.isEmpty(), "Cannot resolve method reference type for explicit type variable");
+                    return resolveWildCard(deduced.head);
+                }
+
+                return inferReferenceReifiedType(call, reference);
+            default:
+                throw new IllegalArgumentException("Cannot resolve type: expected APPLY, NEWCLASS or REFERENCE, got " + call.invocation().getTag());
+        }
+    }
+
+    private Type inferReifiedType(Symbol.TypeVariableSymbol typeVariable, Type parameterType, Type type) {
+        if (notWildCard(type)) {
+            return type;
+        }
+
+        return inferReifiedType(typeVariable, parameterType);
+    }
+
+    private Type inferReifiedType(Symbol.TypeVariableSymbol typeVariable, Type parameterType) {
+        return Objects.requireNonNullElse(resolveWildCard(parameterType), erase(typeVariable));
+    }
+
+    private Type inferImplicitReifiedType(ReifiedCall call) {
+        var argumentTypes = resolveTypes(findPolyExpressionArguments(call.invocation()), call.enclosingClass());
+        var targetType = findTargetType(call).orElse(null);
+        return inferImplicitReifiedType(call, argumentTypes, targetType);
+    }
+
+    // A method reference has neither arguments nor an enclosing statement: they are the parameters and the return type of its functional interface
+    private Type inferReferenceReifiedType(ReifiedCall call, JCTree.JCMemberReference reference) {
+        var descriptor = findDescriptor(reference.type);
+        if (descriptor.isEmpty()) {
+            return inferImplicitReifiedType(call, List.nil(), null);
+        }
+
+        var parameterTypes = descriptor.get().getParameterTypes();
+        var argumentTypes = reference.kind == JCTree.JCMemberReference.ReferenceKind.UNBOUND ? parameterTypes.tail : parameterTypes;
+        return inferImplicitReifiedType(call, argumentTypes, findResultType(descriptor.get()).orElse(null));
+    }
+
+    // The arguments and the target type are attributed for every call, but the rest of the inference is shared by all the calls with the same shape
+    private Type inferImplicitReifiedType(ReifiedCall call, List<Type> argumentTypes, Type targetType) {
+        var key = new InferenceKey(call.invoked(), call.typeVariable(), argumentTypes, targetType);
+        var cached = inferredTypes.get(key);
+        if (cached != null) {
+            stats.increment("Inference cache hits");
+            call.setFallbackReason(fallbackReasons.get(key));
+            return cached;
+        }
+
+        stats.increment("Inference cache misses");
+        var parameterTypes = eraseTypeVariableFromArguments(call.typeVariable(), call.invoked().getParameters(), argumentTypes, call.invoked().isVarArgs());
+        var parameterType = commonType(parameterTypes);
+        var targetArgument = Optional.ofNullable(targetType)
+                .flatMap(type -> resolveImplicitType(findTargetTypeArguments(call, type).iterator(), findFlatGenericType(call).iterator(), call.typeVariable()));
+        var result = targetArgument.map(type -> inferReifiedType(call.typeVariable(), parameterType, type))
+                .orElse(inferReifiedType(call.typeVariable(), parameterType));
+        if (parameterType == null && targetArgument.filter(this::notWildCard).isEmpty()) {
+            fallbackReasons.put(key, findFallbackReason(call, parameterTypes, targetType, targetArgument.isPresent()));
+        }
+
+        call.setFallbackReason(fallbackReasons.get(key));
+        inferredTypes.put(key, result);
+        return result;
+    }
+
+    // Neither the arguments nor the target type bind the type variable, so its erased bound is passed
+    private String findFallbackReason(ReifiedCall call, List<Type> parameterTypes, Type targetType, boolean wildcard) {
+        var name = call.typeVariable().getSimpleName();
+        var arguments = findArgumentsReason(call.typeVariable(), parameterTypes);
+        if (targetType == null) {
+            return arguments + " and the result has no target type";
+        }
+
+        if (!wildcard) {
+            return arguments + " and the target type " + targetType + " doesn't use " + name;
+        }
+
+        return arguments + " and the target type " + targetType + " binds " + name + " to a wildcard";
+    }
+
+    // The arguments declared as the type variable don't have a common type if they are all null, or if any of their types couldn't be resolved
+    private String findArgumentsReason(Symbol.TypeVariableSymbol typeVariable, List<Type> parameterTypes) {
+        var name = typeVariable.getSimpleName();
+        if (parameterTypes.isEmpty()) {
+            return "no argument is declared as " + name;
+        }
+
+        if (parameterTypes.stream().allMatch(type -> type.hasTag(TypeTag.BOT))) {
+            return "only null is passed as " + name;
+        }
+
+        return "the type of an argument passed as " + name + " couldn't be resolved";
+    }
+
+    private List<Type> findFlatGenericType(ReifiedCall call) {
+        if (call.invocation().getTag() == NEWCLASS) {
+            return call.invoked().enclClass().asType().getTypeArguments();
+        }
+
+        return flattenGenericType(call.invoked().getReturnType());
+    }
+
+    // The type parameters of a class are matched to the type arguments of the target as they are: flattening List<String> would bind String instead
+    private List<Type> findTargetTypeArguments(ReifiedCall call, Type targetType) {
+        if (call.invocation().getTag() == NEWCLASS) {
+            return targetType.getTypeArguments();
+        }
+
+        return flattenGenericType(targetType);
+    }
+
+    private List<JCTree.JCExpression> findTypeArguments(JCTree.JCExpression type) {
+        if (type.getTag() != TYPEAPPLY) {
+            return List.of(type);
+        }
+
+        return ((JCTree.JCTypeApply) type).getTypeArguments();
+    }
+
+    private List<JCTree.JCExpression> findPolyExpressionArguments(JCTree.JCPolyExpression invocation) {
+        if (invocation.getTag() == APPLY) {
+            return ((JCTree.JCMethodInvocation) invocation).getArguments();
+        }
+
+        if (invocation.getTag() == NEWCLASS) {
+            return ((JCTree.JCNewClass) invocation).getArguments();
+        }
+
+        throw new IllegalArgumentException("Cannot find arguments of poly expression: expected APPLY or NEW_CLASS, got " + invocation.getTag());
+    }
+
+    // The function type of a lambda or method reference, instantiated with the types of its target
+    public Optional<Type> findDescriptor(Type functionalInterface) {
+        if (functionalInterface == null || !valid(functionalInterface) || !types.isFunctionalInterface(functionalInterface)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(types.findDescriptorType(functionalInterface));
+    }
+
+    private Optional<Type> findResultType(Type descriptor) {
+        var result = descriptor.getReturnType();
+        if (result.hasTag(TypeTag.VOID)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(result);
+    }
+
+    private Optional<Type> findTargetType(ReifiedCall call) {
+        var lambda = call.enclosingLambda();
+        if (lambda != null && lambda.getBodyKind() == LambdaExpressionTree.BodyKind.EXPRESSION) {
+            return findLambdaTargetType(call, lambda);
+        }
+
+        if(call.enclosingStatement() == null){
+            return Optional.empty();
+        }
+
+        var env = findClassEnv(call.enclosingClass());
+        switch (call.enclosingStatement().getTag()) {
+            case RETURN:
+                if (lambda != null) {
+                    return findDescriptor(lambda.type).flatMap(this::findResultType);
+                }
+
+                return inferReifiedType(call.enclosingMethod().getReturnType(), env);
+            case VARDEF:
+                var variable = (JCTree.JCVariableDecl) call.enclosingStatement();
+                if (variable.isImplicitlyTyped()) {
+                    return Optional.empty();
+                }
+
+                return inferReifiedType(variable.vartype, env);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    // The body of an expression lambda is returned to the functional interface, so only the body itself has a target type
+    private Optional<Type> findLambdaTargetType(ReifiedCall call, JCTree.JCLambda lambda) {
+        if (TreeInfo.skipParens((JCTree.JCExpression) lambda.getBody()) != call.invocation()) {
+            return Optional.empty();
+        }
+
+        return findDescriptor(lambda.type).flatMap(this::findResultType);
+    }
+
+    public Type.ArrayType createArray(Type type){
+        return types.makeArrayType(type);
+    }
+
+    public boolean hasUncheckedAnnotation(JCTree.JCModifiers modifiers){
+        return modifiers.getAnnotations()
+                .stream()
+                .anyMatch(this::uncheckedAnnotation);
+    }
+
+    private boolean uncheckedAnnotation(JCTree.JCAnnotation annotation) {
+        var type = TreeInfo.symbol(annotation.getAnnotationType()).asType();
+        if(!types.isSameType(type, createTypeWithParameters(SuppressWarnings.class))){
+            return false;
+        }
+
+        var annotationValueAssignment = annotation.args.head;
+        if(annotationValueAssignment.getTag() != ASSIGN){
+            System.err.printf("SimpleTypes#isUncheckedAnnotation: unexpectedly got tag %s(report this on github)", annotationValueAssignment.getTag().name());
+            return false;
+        }
+
+        var annotationValue = ((JCTree.JCAssign) annotationValueAssignment).getExpression();
+        if (annotationValue.getTag() == LITERAL) {
+            return ((JCTree.JCLiteral) annotationValue).getValue().equals("unchecked");
+        }
+
+        var annotationValueSymbol = TreeInfo.symbol(annotationValue);
+        if(!(annotationValueSymbol instanceof Symbol.VarSymbol)){
+            System.err.printf("SimpleTypes#isUncheckedAnnotation: unexpectedly got symbol %s(report this on github)", annotationValueSymbol.getClass().getName());
+            return false;
+        }
+
+        return ((Symbol.VarSymbol) annotationValueSymbol).getConstantValue().equals("unchecked");
+    }
+
+    // Argument and target types are compared using javac's type equality, as attributing the same expression twice can create different instances
+    private final class InferenceKey {
+        private final Symbol invoked;
+        private final Symbol typeVariable;
+        private final List<Type> argumentTypes;
+        private final Type targetType;
+        private InferenceKey(Symbol invoked, Symbol typeVariable, List<Type> argumentTypes, Type targetType) {
+            this.invoked = invoked;
+            this.typeVariable = typeVariable;
+            this.argumentTypes = argumentTypes;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof InferenceKey)) return false;
+            var that = (InferenceKey) obj;
+            return invoked == that.invoked
+                    && typeVariable == that.typeVariable
+                    && sameTypes(argumentTypes, that.argumentTypes)
+                    && (targetType == null ? that.targetType == null : that.targetType != null && types.isSameType(targetType, that.targetType));
+        }
+
+        private boolean sameTypes(List<Type> first, List<Type> second) {
+            return first.size() == second.size() && IntStream.range(0, first.size())
+                    .allMatch(index -> types.isSameType(first.get(index), second.get(index)));
+        }
+
+        @Override
+        public int hashCode() {
+            var argumentSymbols = argumentTypes.stream()
+                    .map(type -> type.tsym)
+                    .collect(List.collector());
+            return Objects.hash(invoked, typeVariable, argumentSymbols, targetType == null ? null : targetType.tsym);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package it.auties.reified.util;
+
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Decides which compilation units are processed using the reified.include and reified.exclude options and the @Generated annotation.
+// Both options take a comma separated list of patterns matched against the package of the unit and the qualified names of its classes:
+// a plain name matches itself and its sub packages, * matches a single segment and ** matches any number of segments.
+// Only the names and the annotations of the top level classes are read, so no tree is walked or attributed.
+public class CompilationUnitFilter {
+    private static final String GENERATED_ANNOTATION = "Generated";
+
+    private final List<Predicate<String>> includes;
+    private final List<Predicate<String>> excludes;
+    private final boolean skipGenerated;
+    public CompilationUnitFilter(Map<String, String> options) {
+        this.includes = parsePatterns(options.get("reified.include"));
+        this.excludes = parsePatterns(options.get("reified.exclude"));
+        this.skipGenerated = !"false".equalsIgnoreCase(options.get("reified.skipGenerated"));
+    }
+
+    public boolean excluded(JCTree.JCCompilationUnit unit) {
+        var names = findNames(unit);
+        if (!includes.isEmpty() && names.stream().noneMatch(name -> matches(includes, name))) {
+            return true;
+        }
+
+        return names.stream().anyMatch(name -> matches(excludes, name));
+    }
+
+    public boolean generated(JCTree.JCCompilationUnit unit) {
+        return skipGenerated && unit.getTypeDecls()
+                .stream()
+                .filter(tree -> tree instanceof JCTree.JCClassDecl)
+                .map(tree -> (JCTree.JCClassDecl) tree)
+                .flatMap(clazz -> clazz.getModifiers().getAnnotations().stream())
+                .map(annotation -> TreeInfo.name(annotation.getAnnotationType()))
+                .anyMatch(name -> name != null && name.contentEquals(GENERATED_ANNOTATION));
+    }
+
+    private List<String> findNames(JCTree.JCCompilationUnit unit) {
+        var packageName = unit.getPackageName() == null ? "" : unit.getPackageName().toString();
+        var names = unit.getTypeDecls()
+                .stream()
+                .filter(tree -> tree instanceof JCTree.JCClassDecl)
+                .map(tree -> ((JCTree.JCClassDecl) tree).getSimpleName().toString())
+                .map(name -> packageName.isEmpty() ? name : packageName + "." + name)
+                .collect(Collectors.toList());
+        names.add(packageName);
+        return names;
+    }
+
+    private boolean matches(List<Predicate<String>> patterns, String name) {
+        return patterns.stream().anyMatch(pattern -> pattern.test(name));
+    }
+
+    private List<Predicate<String>> parsePatterns(String option) {
+        if (option == null || option.isBlank()) {
+            return List.of();
+        }
+
+        return Arrays.stream(option.split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .map(this::parsePattern)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Predicate<String> parsePattern(String pattern) {
+        if (!pattern.contains("*")) {
+            return name -> name.equals(pattern) || name.startsWith(pattern + ".");
+        }
+
+        var regex = Arrays.stream(pattern.split("\\*\\*", -1))
+                .map(part -> Arrays.stream(part.split("\\*", -1))
+                        .map(Pattern::quote)
+                        .collect(Collectors.joining("[^.]*")))
+                .collect(Collectors.joining(".*"));
+        return Pattern.compile(regex).asMatchPredicate();
+    }
+}
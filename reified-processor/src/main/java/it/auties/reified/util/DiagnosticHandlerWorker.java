@@ -0,0 +1,83 @@
+package it.auties.reified.util;
+
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.JCDiagnostic;
+import com.sun.tools.javac.util.Log;
+import com.sun.tools.javac.util.Log.DiagnosticHandler;
+
+import javax.tools.JavaFileObject;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Set;
+
+// Collects the diagnostics reported while reified attributes the compilation units.
+// The cached handler is pushed on the Log of the compilation, like javac's deferred handlers, instead of replacing its handler by reflection:
+// a Log belongs to a single Context, so compilations running in parallel in the same build daemon never see each other's handler.
+public class DiagnosticHandlerWorker {
+    private static final Set<String> DISCARDED_ERROR_CODES = Set.of(
+            "compiler.err.generic.array.creation",
+            "compiler.err.cant.resolve"
+    );
+
+    private final Log javacLogger;
+    private CachedDiagnosticHandler handler;
+
+    public DiagnosticHandlerWorker(Context context){
+        this.javacLogger = Log.instance(context);
+    }
+
+    public void useCachedHandler(){
+        if (handler != null) {
+            throw new IllegalStateException("Cannot switch to cached diagnostic handler: it's already in use");
+        }
+
+        this.handler = new CachedDiagnosticHandler(javacLogger);
+    }
+
+    // Called in a finally block, so that javac's handler is restored even if reified fails
+    public void useJavacHandler(){
+        if (handler == null || handler.popped) {
+            return;
+        }
+
+        javacLogger.popDiagnosticHandler(handler);
+        handler.popped = true;
+    }
+
+    public void reportErrors(){
+        handler.cachedErrors
+                .stream()
+                .filter(diagnostic -> DISCARDED_ERROR_CODES.stream()
+                        .noneMatch(code -> diagnostic.getCode().contains(code)))
+                .forEach(handler::reportToJavac);
+    }
+
+    public void reportErrors(Set<JavaFileObject> reattributedSources){
+        handler.cachedErrors
+                .stream()
+                .filter(diagnostic -> diagnostic.getSource() != null && !reattributedSources.contains(diagnostic.getSource()))
+                .forEach(handler::reportToJavac);
+    }
+
+    public static class CachedDiagnosticHandler extends DiagnosticHandler {
+        Queue<JCDiagnostic> cachedErrors;
+        boolean popped;
+        public CachedDiagnosticHandler(Log log){
+            this.cachedErrors = new LinkedList<>();
+            install(log);
+        }
+
+        @Override
+        public void report(JCDiagnostic diagnostic) {
+            if(diagnostic == null){
+                return;
+            }
+
+            cachedErrors.add(diagnostic);
+        }
+
+        private void reportToJavac(JCDiagnostic diagnostic) {
+            prev.report(diagnostic);
+        }
+    }
+}
@@ -5,26 +5,46 @@ import sun.misc.Unsafe;
 import java.io.OutputStream;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.NoSuchElementException;
 
+// A reflective object opened here can be shared by the compilations of a build daemon, like the field of ReifiedPlugin's ArgumentTypeCache:
+// it's opened once, when its holder is initialized, and only read afterwards, while the state it reads belongs to the Context of each compilation.
+// The override flag is written with a volatile store, so an object opened by one thread is seen as opened by the others.
 public class IllegalReflection {
     private static final Unsafe unsafe;
     private static final long offset;
+    private static volatile boolean javacOpened;
 
     static {
         unsafe = getUnsafe();
         offset = findOffset();
     }
 
+    // Both the processor and the plugin open javac, possibly from different threads of the same build daemon.
+    // Every package of javac is opened, as the ones that it didn't load yet would stay closed for the rest of the daemon.
     public static void openJavac(){
+        if (javacOpened) {
+            return;
+        }
+
+        synchronized (IllegalReflection.class) {
+            if (javacOpened) {
+                return;
+            }
+
+            openJavacPackages();
+            javacOpened = true;
+        }
+    }
+
+    private static void openJavacPackages(){
         try {
             var jdkCompilerModule = findCompilerModule();
             var addOpensMethod = Module.class.getDeclaredMethod("implAddOpens", String.class, Module.class);
             var addOpensMethodOffset = unsafe.objectFieldOffset(ModulePlaceholder.class.getDeclaredField("first"));
             unsafe.putBooleanVolatile(addOpensMethod, addOpensMethodOffset, true);
-            Arrays.stream(Package.getPackages())
-                    .map(Package::getName)
+            jdkCompilerModule.getPackages()
+                    .stream()
                     .filter(pack -> pack.startsWith("com.sun.tools.javac"))
                     .forEach(pack -> invokeAccessibleMethod(addOpensMethod, jdkCompilerModule, pack, IllegalReflection.class.getModule()));
         }catch (Throwable throwable){
@@ -77,7 +97,7 @@ public class IllegalReflection {
 
     public static <T extends AccessibleObject> T open(T object){
         if(offset != -1){
-            unsafe.putBoolean(object, offset, true);
+            unsafe.putBooleanVolatile(object, offset, true);
             return object;
         }
 
@@ -0,0 +1,107 @@
+package it.auties.reified.util;
+
+import com.sun.tools.javac.resources.CompilerProperties.Errors;
+import com.sun.tools.javac.resources.CompilerProperties.Notes;
+import com.sun.tools.javac.resources.CompilerProperties.Warnings;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Log;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Reports the call sites whose reified type couldn't be inferred, which are passed the erased bound of the type parameter, usually Object.
+// Enabled by reified.fallbacks: warning reports each site as a warning, error as an error, so that the compilation fails.
+// The diagnostics are reported in source order once javac's diagnostic handler is restored, as the ones reported while processing are discarded for the rewritten units.
+public class ReifiedFallbacks {
+    private final Log log;
+    private final Mode mode;
+    private final ListBuffer<Fallback> fallbacks;
+    public ReifiedFallbacks(Context context, Map<String, String> options) {
+        this.log = Log.instance(context);
+        this.mode = parseMode(options.get("reified.fallbacks"));
+        this.fallbacks = new ListBuffer<>();
+    }
+
+    private static Mode parseMode(String option) {
+        if (option == null || option.equalsIgnoreCase("false")) {
+            return null;
+        }
+
+        if (option.equalsIgnoreCase("warning") || option.equalsIgnoreCase("true")) {
+            return Mode.WARNING;
+        }
+
+        if (option.equalsIgnoreCase("error")) {
+            return Mode.ERROR;
+        }
+
+        throw new IllegalArgumentException("Cannot parse fallbacks mode, expected warning or error: " + option);
+    }
+
+    public boolean enabled() {
+        return mode != null;
+    }
+
+    public void add(JCTree.JCCompilationUnit unit, JCTree site, String declaration, String message) {
+        fallbacks.add(new Fallback(unit, site, declaration, message));
+    }
+
+    public void report() {
+        if (mode == null || fallbacks.isEmpty()) {
+            return;
+        }
+
+        fallbacks.stream()
+                .sorted(Comparator.comparing((Fallback fallback) -> fallback.unit.sourcefile.getName()).thenComparingInt(fallback -> TreeInfo.getStartPos(fallback.site)))
+                .forEach(this::report);
+        log.note(Notes.ProcMessager(createSummary()));
+        fallbacks.clear();
+    }
+
+    private void report(Fallback fallback) {
+        var previous = log.useSource(fallback.unit.sourcefile);
+        try {
+            if (mode == Mode.ERROR) {
+                log.error(fallback.site, Errors.ProcMessager(fallback.message));
+                return;
+            }
+
+            log.warning(fallback.site, Warnings.ProcMessager(fallback.message));
+        } finally {
+            log.useSource(previous);
+        }
+    }
+
+    private String createSummary() {
+        var sites = fallbacks.stream()
+                .collect(Collectors.groupingBy(fallback -> fallback.declaration, TreeMap::new, Collectors.counting()));
+        var declarations = sites.entrySet()
+                .stream()
+                .map(entry -> entry.getKey() + ": " + entry.getValue())
+                .collect(Collectors.joining(", "));
+        return "Reified passed the erased bound to " + fallbacks.size() + " call sites(" + declarations + ")";
+    }
+
+    private enum Mode {
+        WARNING,
+        ERROR
+    }
+
+    private static final class Fallback {
+        private final JCTree.JCCompilationUnit unit;
+        private final JCTree site;
+        private final String declaration;
+        private final String message;
+        private Fallback(JCTree.JCCompilationUnit unit, JCTree site, String declaration, String message) {
+            this.unit = unit;
+            this.site = site;
+            this.declaration = declaration;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package it.auties.reified.util;
+
+import com.sun.tools.javac.main.Option;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Options;
+import it.auties.reified.model.ReifiedRewrite;
+import it.auties.reified.scanner.OrdinalInvocationScanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Stores the rewrites of the compilation units that don't declare any reified type parameter, so that they can be replayed by the next build without scanning or attributing the unit.
+// Enabled by reified.cache: true stores the cache next to the class output, for example in target/reified-cache, any other value is used as the directory.
+// A unit is keyed by its content, by the signatures of every processed unit, by the options and by the class path:
+// the inferred types only depend on the bodies of the unit and on the declarations it can see, so changing a body of another unit keeps the plan valid.
+// The file is a sorted table of keys followed by the rewrites, so a lookup only decodes the plan it needs.
+// It's read into memory instead of being mapped, as a mapped file cannot be replaced on Windows.
+public class ReifiedPlanCache {
+    private static final String FILE_NAME = "plans.bin";
+    private static final String DEFAULT_DIRECTORY = "reified-cache";
+    private static final int MAGIC = 0x52454946;
+    private static final int VERSION = 3;
+    private static final int KEY_LENGTH = 32;
+    private static final int ENTRY_LENGTH = KEY_LENGTH + Integer.BYTES * 2;
+    private static final int HEADER_LENGTH = Integer.BYTES * 3;
+
+    private final Path file;
+    private final String environment;
+    private final ByteBuffer previous;
+    private final Map<String, List<ReifiedRewrite>> plans;
+    private ReifiedPlanCache(Path file, String environment) {
+        this.file = file;
+        this.environment = environment;
+        this.previous = file == null ? null : read(file);
+        this.plans = new TreeMap<>();
+    }
+
+    public static ReifiedPlanCache instance(Context context, Map<String, String> options) {
+        var instance = context.get(ReifiedPlanCache.class);
+        if (instance != null) {
+            return instance;
+        }
+
+        var created = new ReifiedPlanCache(findFile(context, options.get("reified.cache")), findEnvironment(context, options));
+        context.put(ReifiedPlanCache.class, created);
+        return created;
+    }
+
+    private static Path findFile(Context context, String option) {
+        if (option == null || option.equalsIgnoreCase("false")) {
+            return null;
+        }
+
+        if (!option.equalsIgnoreCase("true")) {
+            return Path.of(option, FILE_NAME);
+        }
+
+        var output = Options.instance(context).get(Option.D);
+        if (output == null) {
+            throw new IllegalArgumentException("Cannot locate plan cache: no class output directory, pass a directory to reified.cache");
+        }
+
+        var parent = Path.of(output).toAbsolutePath().getParent();
+        return parent.resolve(DEFAULT_DIRECTORY).resolve(FILE_NAME);
+    }
+
+    private static String findEnvironment(Context context, Map<String, String> options) {
+        return new TreeMap<>(options) + "|" + Options.instance(context).get(Option.CLASS_PATH);
+    }
+
+    private static ByteBuffer read(Path file) {
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+
+            var buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.remaining() < HEADER_LENGTH || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                return null;
+            }
+
+            return buffer;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    public boolean enabled() {
+        return file != null;
+    }
+
+    // The signatures of every unit: a plan is only valid as long as the declarations it was inferred from don't change
+    public String fingerprint(Collection<JCTree.JCCompilationUnit> units) {
+        var digest = createDigest();
+        update(digest, environment);
+        units.forEach(unit -> update(digest, findSignature(unit)));
+        return toHex(digest.digest());
+    }
+
+    private String findSignature(JCTree.JCCompilationUnit unit) {
+        var builder = new StringBuilder();
+        builder.append(unit.sourcefile.toUri()).append('\n');
+        builder.append(unit.getPackageName()).append('\n');
+        unit.getImports().forEach(builder::append);
+        unit.getTypeDecls()
+                .stream()
+                .filter(tree -> tree instanceof JCTree.JCClassDecl)
+                .forEach(tree -> appendSignature((JCTree.JCClassDecl) tree, builder));
+        return builder.toString();
+    }
+
+    private void appendSignature(JCTree.JCClassDecl clazz, StringBuilder builder) {
+        builder.append(clazz.mods).append(clazz.name).append(clazz.typarams).append(clazz.extending).append(clazz.implementing).append('{');
+        for (var member : clazz.defs) {
+            switch (member.getTag()) {
+                case CLASSDEF:
+                    appendSignature((JCTree.JCClassDecl) member, builder);
+                    break;
+                case METHODDEF:
+                    var method = (JCTree.JCMethodDecl) member;
+                    builder.append(method.mods).append(method.typarams).append(method.restype).append(method.name).append(method.params).append(method.thrown);
+                    appendOrdinals(method, builder);
+                    builder.append(';');
+                    break;
+                case VARDEF:
+                    var field = (JCTree.JCVariableDecl) member;
+                    builder.append(field.mods).append(field.vartype).append(field.name).append(';');
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        builder.append('}');
+    }
+
+    // The ordinals of a type parameter are parameters of its method too, even though they are declared in its body
+    private void appendOrdinals(JCTree.JCMethodDecl method, StringBuilder builder) {
+        if (method.body == null) {
+            return;
+        }
+
+        method.typarams
+                .stream()
+                .filter(typeParameter -> !typeParameter.annotations.isEmpty())
+                .map(typeParameter -> new OrdinalInvocationScanner(typeParameter.name).scan(method.body))
+                .forEach(builder::append);
+    }
+
+    public String key(JCTree.JCCompilationUnit unit, String fingerprint) {
+        try {
+            var digest = createDigest();
+            update(digest, fingerprint);
+            update(digest, unit.sourcefile.getCharContent(true).toString());
+            return toHex(digest.digest());
+        } catch (IOException exception) {
+            throw new RuntimeException("Cannot read compilation unit " + unit.sourcefile.getName(), exception);
+        }
+    }
+
+    public Optional<List<ReifiedRewrite>> find(String key) {
+        var plan = plans.get(key);
+        if (plan != null) {
+            return Optional.of(plan);
+        }
+
+        return findPrevious(key);
+    }
+
+    private Optional<List<ReifiedRewrite>> findPrevious(String key) {
+        if (previous == null) {
+            return Optional.empty();
+        }
+
+        var target = fromHex(key);
+        var low = 0;
+        var high = previous.getInt(Integer.BYTES * 2) - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var entry = HEADER_LENGTH + middle * ENTRY_LENGTH;
+            var comparison = compareKey(entry, target);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return Optional.of(decode(previous.getInt(entry + KEY_LENGTH)));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private int compareKey(int entry, byte[] target) {
+        for (var index = 0; index < KEY_LENGTH; index++) {
+            var comparison = Byte.compareUnsigned(previous.get(entry + index), target[index]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        return 0;
+    }
+
+    private List<ReifiedRewrite> decode(int offset) {
+        var buffer = previous.duplicate().position(offset);
+        var size = buffer.getInt();
+        var rewrites = new ArrayList<ReifiedRewrite>(size);
+        for (var index = 0; index < size; index++) {
+            var kind = ReifiedRewrite.Kind.values()[buffer.get()];
+            var position = buffer.getInt();
+            var tag = JCTree.Tag.valueOf(decodeString(buffer));
+            var declaration = decodeString(buffer);
+            var typeName = decodeString(buffer);
+            var dimensions = buffer.getInt();
+            rewrites.add(new ReifiedRewrite(kind, position, tag, declaration, typeName, dimensions));
+        }
+
+        return rewrites;
+    }
+
+    private String decodeString(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void put(String key, List<ReifiedRewrite> rewrites) {
+        plans.put(key, List.copyOf(rewrites));
+    }
+
+    // Only the plans of this build are written, so the units that were deleted or excluded don't grow the file
+    public void write() {
+        if (!enabled() || plans.isEmpty()) {
+            return;
+        }
+
+        try {
+            var data = new ByteArrayOutputStream();
+            var dataOutput = new DataOutputStream(data);
+            var table = new ByteArrayOutputStream();
+            var tableOutput = new DataOutputStream(table);
+            for (var entry : plans.entrySet()) {
+                tableOutput.write(fromHex(entry.getKey()));
+                tableOutput.writeInt(HEADER_LENGTH + plans.size() * ENTRY_LENGTH + data.size());
+                var start = data.size();
+                encode(entry.getValue(), dataOutput);
+                tableOutput.writeInt(data.size() - start);
+            }
+
+            var temporary = Files.createDirectories(file.getParent()).resolve(FILE_NAME + ".tmp");
+            try (var output = new DataOutputStream(Files.newOutputStream(temporary))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(plans.size());
+                table.writeTo(output);
+                data.writeTo(output);
+            }
+
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            throw new RuntimeException("Cannot write plan cache to " + file, exception);
+        }
+    }
+
+    private void encode(List<ReifiedRewrite> rewrites, DataOutputStream output) throws IOException {
+        output.writeInt(rewrites.size());
+        for (var rewrite : rewrites) {
+            output.writeByte(rewrite.kind().ordinal());
+            output.writeInt(rewrite.position());
+            encodeString(rewrite.tag().name(), output);
+            encodeString(rewrite.declaration(), output);
+            encodeString(rewrite.typeName(), output);
+            output.writeInt(rewrite.dimensions());
+        }
+    }
+
+    private void encodeString(String value, DataOutputStream output) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new RuntimeException("Cannot hash compilation units", exception);
+        }
+    }
+
+    private void update(MessageDigest digest, String value) {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private String toHex(byte[] bytes) {
+        var builder = new StringBuilder(bytes.length * 2);
+        for (var value : bytes) {
+            builder.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+
+    private byte[] fromHex(String hex) {
+        var bytes = new byte[hex.length() / 2];
+        for (var index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) Integer.parseInt(hex, index * 2, index * 2 + 2, 16);
+        }
+
+        return bytes;
+    }
+}
@@ -0,0 +1,246 @@
+package it.auties.reified.util;
+
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.Pretty;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Names;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+// Prints a compilation unit as a source that javac can compile.
+// The unit was already attributed, so javac's printer would print the members and the types that javac added:
+// default and anonymous constructors, the super() calls of constructors and the inferred types of local variables are left implicit, like they were in the original source.
+// javac's printer also doesn't know records, which are printed with their header instead of as classes whose fields are the components.
+// The types in the unnamed package are printed without the empty package qualifier.
+public class ReifiedPrinter extends Pretty {
+    private final TreeMaker maker;
+    private final Names names;
+    private JCTree.JCClassDecl record;
+    public ReifiedPrinter(Writer writer, TreeMaker maker, Names names) {
+        super(writer, true);
+        this.maker = maker;
+        this.names = names;
+    }
+
+    @Override
+    public void visitClassDef(JCTree.JCClassDecl tree) {
+        var previous = record;
+        var defs = filterMembers(tree);
+        try {
+            this.record = (tree.mods.flags & Flags.RECORD) != 0 ? tree : null;
+            if (record == null) {
+                super.visitClassDef(tree);
+                return;
+            }
+
+            printRecord(tree);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            tree.defs = defs;
+            this.record = previous;
+        }
+    }
+
+    private void printRecord(JCTree.JCClassDecl tree) throws IOException {
+        printDocComment(tree);
+        printAnnotations(tree.mods.annotations);
+        printFlags(tree.mods.flags & Flags.AccessFlags);
+        print("record " + tree.name);
+        printTypeParameters(tree.typarams);
+        print("(");
+        printComponents(tree, TreeInfo.recordFields(tree));
+        print(")");
+        if (tree.implementing.nonEmpty()) {
+            print(" implements ");
+            printExprs(tree.implementing);
+        }
+
+        print(" ");
+        printBlock(tree.defs.stream()
+                .filter(member -> !member.hasTag(JCTree.Tag.VARDEF) || (((JCTree.JCVariableDecl) member).mods.flags & Flags.RECORD) == 0)
+                .collect(List.collector()));
+    }
+
+    private void printComponents(JCTree.JCClassDecl tree, List<JCTree.JCVariableDecl> components) throws IOException {
+        for (var component : components) {
+            if (component != components.head) {
+                print(", ");
+            }
+
+            for (var annotation : component.mods.annotations) {
+                printExpr(annotation);
+                print(" ");
+            }
+
+            var recordComponent = tree.sym.getRecordComponent(component.sym);
+            if (recordComponent != null && recordComponent.isVarargs()) {
+                printExpr(((JCTree.JCArrayTypeTree) component.vartype).elemtype);
+                print("...");
+            } else {
+                printExpr(component.vartype);
+            }
+
+            print(" " + component.name);
+        }
+    }
+
+    @Override
+    public void visitNewClass(JCTree.JCNewClass tree) {
+        if (tree.def == null) {
+            super.visitNewClass(tree);
+            return;
+        }
+
+        var defs = filterMembers(tree.def);
+        try {
+            super.visitNewClass(tree);
+        } finally {
+            tree.def.defs = defs;
+        }
+    }
+
+    // Returns the members of the class before they were filtered
+    private List<JCTree> filterMembers(JCTree.JCClassDecl clazz) {
+        var defs = clazz.defs;
+        clazz.defs = defs.stream()
+                .filter(member -> isDeclared(clazz, member))
+                .collect(List.collector());
+        return defs;
+    }
+
+    // A generated constructor is only printed if reified added a parameter to it, as it isn't the default one anymore.
+    // The canonical constructor of a record always matches its header, while anonymous classes cannot declare constructors.
+    private boolean isDeclared(JCTree.JCClassDecl clazz, JCTree member) {
+        if (!member.hasTag(JCTree.Tag.METHODDEF)) {
+            return true;
+        }
+
+        var method = (JCTree.JCMethodDecl) member;
+        if ((method.mods.flags & (Flags.ANONCONSTR | Flags.GENERATED_MEMBER)) != 0) {
+            return false;
+        }
+
+        if ((method.mods.flags & Flags.GENERATEDCONSTR) == 0) {
+            return true;
+        }
+
+        return (clazz.mods.flags & Flags.RECORD) == 0 && method.params.nonEmpty();
+    }
+
+    @Override
+    public void visitMethodDef(JCTree.JCMethodDecl tree) {
+        if (!TreeInfo.isConstructor(tree) || tree.body == null) {
+            super.visitMethodDef(tree);
+            return;
+        }
+
+        var stats = tree.body.stats;
+        try {
+            tree.body.stats = stats.stream()
+                    .filter(statement -> !isImplicitSuperCall(statement))
+                    .collect(List.collector());
+            if (record == null) {
+                super.visitMethodDef(tree);
+                return;
+            }
+
+            printRecordConstructor(tree);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            tree.body.stats = stats;
+        }
+    }
+
+    private boolean isImplicitSuperCall(JCTree.JCStatement statement) {
+        return TreeInfo.isSuperCall(statement) && ((JCTree.JCMethodInvocation) ((JCTree.JCExpressionStatement) statement).expr).args.isEmpty();
+    }
+
+    // javac's printer only knows the name of the classes it printed
+    private void printRecordConstructor(JCTree.JCMethodDecl tree) throws IOException {
+        printDocComment(tree);
+        printAnnotations(tree.mods.annotations);
+        printFlags(tree.mods.flags & Flags.AccessFlags);
+        printTypeParameters(tree.typarams);
+        print(record.name);
+        if ((tree.mods.flags & Flags.COMPACT_RECORD_CONSTRUCTOR) == 0) {
+            print("(");
+            printExprs(tree.params);
+            print(")");
+        }
+
+        if (tree.thrown.nonEmpty()) {
+            print(" throws ");
+            printExprs(tree.thrown);
+        }
+
+        print(" ");
+        printStat(tree.body);
+    }
+
+    // The type of a variable declared with var could be one that cannot be written, like the one of an anonymous class.
+    // The body of an enum constant is printed by javac's printer without visiting its class.
+    @Override
+    public void visitVarDef(JCTree.JCVariableDecl tree) {
+        if (isEnumConstantWithBody(tree)) {
+            var body = ((JCTree.JCNewClass) tree.init).def;
+            var defs = filterMembers(body);
+            try {
+                super.visitVarDef(tree);
+            } finally {
+                body.defs = defs;
+            }
+
+            return;
+        }
+
+        if (!tree.declaredUsingVar() || tree.vartype == null) {
+            super.visitVarDef(tree);
+            return;
+        }
+
+        var type = tree.vartype;
+        try {
+            tree.vartype = maker.Ident(names.var);
+            super.visitVarDef(tree);
+        } finally {
+            tree.vartype = type;
+        }
+    }
+
+    // The types that reified adds are qualified by their package, which is an empty identifier for the unnamed one
+    @Override
+    public void visitSelect(JCTree.JCFieldAccess tree) {
+        if (!isUnnamedPackage(tree.selected)) {
+            super.visitSelect(tree);
+            return;
+        }
+
+        print(tree.name.toString());
+    }
+
+    private boolean isUnnamedPackage(JCTree.JCExpression expression) {
+        return expression.hasTag(JCTree.Tag.IDENT) && ((JCTree.JCIdent) expression).name == names.empty;
+    }
+
+    private boolean isEnumConstantWithBody(JCTree.JCVariableDecl tree) {
+        return (tree.mods.flags & Flags.ENUM) != 0
+                && tree.init != null
+                && tree.init.hasTag(JCTree.Tag.NEWCLASS)
+                && ((JCTree.JCNewClass) tree.init).def != null;
+    }
+
+    private void print(String text) {
+        try {
+            super.print(text);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
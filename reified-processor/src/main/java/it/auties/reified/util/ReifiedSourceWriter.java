@@ -0,0 +1,99 @@
+package it.auties.reified.util;
+
+import com.sun.tools.javac.main.Option;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Names;
+import com.sun.tools.javac.util.Options;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Writes the compilation units, as they are after being rewritten, to a source directory that can be compiled by javac without reified(-proc:none).
+// Enabled by reified.sources: true writes the sources next to the class output, for example in target/reified-sources, any other value is used as the directory.
+// The units that weren't rewritten are copied as they are, while the rewritten ones are printed from their tree: like delombok, only their doc comments are kept.
+// A file is only written if its content changed, so that the build that compiles the directory only recompiles the units whose rewrites changed.
+public class ReifiedSourceWriter {
+    private static final String DEFAULT_DIRECTORY = "reified-sources";
+
+    private final TreeMaker maker;
+    private final Names names;
+    private final Path directory;
+    private ReifiedSourceWriter(Context context, Path directory) {
+        this.maker = TreeMaker.instance(context);
+        this.names = Names.instance(context);
+        this.directory = directory;
+    }
+
+    public static ReifiedSourceWriter instance(Context context, Map<String, String> options) {
+        var instance = context.get(ReifiedSourceWriter.class);
+        if (instance != null) {
+            return instance;
+        }
+
+        var created = new ReifiedSourceWriter(context, findDirectory(context, options.get("reified.sources")));
+        context.put(ReifiedSourceWriter.class, created);
+        return created;
+    }
+
+    private static Path findDirectory(Context context, String option) {
+        if (option == null || option.equalsIgnoreCase("false")) {
+            return null;
+        }
+
+        if (!option.equalsIgnoreCase("true")) {
+            return Path.of(option);
+        }
+
+        var output = Options.instance(context).get(Option.D);
+        if (output == null) {
+            throw new IllegalArgumentException("Cannot locate source directory: no class output directory, pass a directory to reified.sources");
+        }
+
+        return Path.of(output).toAbsolutePath().getParent().resolve(DEFAULT_DIRECTORY);
+    }
+
+    public boolean enabled() {
+        return directory != null;
+    }
+
+    // Returns whether the file was written
+    public boolean write(JCTree.JCCompilationUnit unit, boolean rewritten) {
+        try {
+            var file = findFile(unit);
+            var content = rewritten ? print(unit) : unit.sourcefile.getCharContent(true).toString();
+            if (Files.exists(file) && Files.readString(file, StandardCharsets.UTF_8).equals(content)) {
+                return false;
+            }
+
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+            return true;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Cannot write source of " + unit.sourcefile.getName(), exception);
+        }
+    }
+
+    private Path findFile(JCTree.JCCompilationUnit unit) {
+        var name = unit.sourcefile.getName();
+        var fileName = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        var packageName = unit.getPackageName();
+        if (packageName == null) {
+            return directory.resolve(fileName);
+        }
+
+        return directory.resolve(packageName.toString().replace('.', '/')).resolve(fileName);
+    }
+
+    private String print(JCTree.JCCompilationUnit unit) throws IOException {
+        var writer = new StringWriter();
+        new ReifiedPrinter(writer, maker, names).printUnit(unit, null);
+        return writer.toString();
+    }
+}
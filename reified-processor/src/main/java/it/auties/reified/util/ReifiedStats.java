@@ -0,0 +1,43 @@
+package it.auties.reified.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Counters collected while processing, printed when the reified.stats option is enabled.
+// A counter can list what it counted, which is printed after the counters in alphabetical order.
+public class ReifiedStats {
+    private final Map<String, Long> counters;
+    private final Map<String, Set<String>> details;
+    public ReifiedStats() {
+        this.counters = new LinkedHashMap<>();
+        this.details = new LinkedHashMap<>();
+    }
+
+    public void increment(String name) {
+        add(name, 1);
+    }
+
+    public void add(String name, long amount) {
+        counters.merge(name, amount, Long::sum);
+    }
+
+    public void set(String name, long value) {
+        counters.put(name, value);
+    }
+
+    public long get(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    public void addDetail(String name, String detail) {
+        details.computeIfAbsent(name, ignored -> new TreeSet<>()).add(detail);
+    }
+
+    public void print() {
+        System.err.println("Reified stats:");
+        counters.forEach((name, value) -> System.err.println(name + ": " + value));
+        details.forEach((name, values) -> System.err.println(name + ": " + String.join(", ", values)));
+    }
+}
@@ -0,0 +1,177 @@
+package it.auties.reified.util;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.code.Types;
+import com.sun.tools.javac.util.Context;
+import it.auties.reified.runtime.ReifiedIndex;
+
+import javax.tools.JavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Collects the concrete types passed to each reified type parameter and writes them to the class output.
+// The index is stored in the context, so that the types found in every processing round end up in the same files.
+// reified.index writes META-INF/reified/types.idx(true by default),
+// reified.reflectConfig writes a GraalVM reflect-config.json and reified.classList an AppCDS class list(both false by default).
+public class ReifiedTypeIndex {
+    private static final String REFLECT_CONFIG_PATH = "META-INF/native-image/reified/reflect-config.json";
+    private static final String CLASS_LIST_PATH = "META-INF/reified/classlist";
+    private static final String ARRAY_SUFFIX = "[]";
+    private static final String INJECTED_PREFIX = "reified$";
+
+    private final Types types;
+    private final JavaFileManager fileManager;
+    private final Map<String, Set<String>> indexedTypes;
+    private final boolean index;
+    private final boolean reflectConfig;
+    private final boolean classList;
+    private ReifiedTypeIndex(Context context, Map<String, String> options) {
+        this.types = Types.instance(context);
+        this.fileManager = context.get(JavaFileManager.class);
+        this.indexedTypes = new TreeMap<>();
+        this.index = !"false".equalsIgnoreCase(options.get("reified.index"));
+        this.reflectConfig = Boolean.parseBoolean(options.get("reified.reflectConfig"));
+        this.classList = Boolean.parseBoolean(options.get("reified.classList"));
+    }
+
+    public static ReifiedTypeIndex instance(Context context, Map<String, String> options) {
+        var instance = context.get(ReifiedTypeIndex.class);
+        if (instance != null) {
+            return instance;
+        }
+
+        var created = new ReifiedTypeIndex(context, options);
+        context.put(ReifiedTypeIndex.class, created);
+        return created;
+    }
+
+    // Types that still depend on a type variable are resolved at runtime, so they aren't indexed
+    public void add(Symbol.TypeVariableSymbol typeVariable, Type type) {
+        add(findDeclarationName(typeVariable), type);
+    }
+
+    public void add(String declaration, Type type) {
+        if (type == null || !isConcrete(type)) {
+            return;
+        }
+
+        indexedTypes.computeIfAbsent(declaration, ignored -> new TreeSet<>())
+                .add(findBinaryName(types.erasure(type)));
+    }
+
+    private boolean isConcrete(Type type) {
+        if (type.hasTag(TypeTag.ARRAY)) {
+            return isConcrete(types.elemtype(type));
+        }
+
+        return type.hasTag(TypeTag.CLASS);
+    }
+
+    public String findDeclarationName(Symbol.TypeVariableSymbol typeVariable) {
+        var owner = typeVariable.getEnclosingElement();
+        if (owner instanceof Symbol.ClassSymbol) {
+            return ((Symbol.ClassSymbol) owner).flatName() + "<" + typeVariable.getSimpleName() + ">";
+        }
+
+        var method = (Symbol.MethodSymbol) owner;
+        var parameters = method.getParameters()
+                .stream()
+                .filter(parameter -> !isInjected(method, parameter))
+                .map(parameter -> findBinaryName(types.erasure(parameter.type)))
+                .collect(Collectors.joining(","));
+        return method.enclClass().flatName() + "#" + method.getSimpleName() + "(" + parameters + ")<" + typeVariable.getSimpleName() + ">";
+    }
+
+    // A method is named after the parameters of its source, so that its name doesn't change once the class of a type parameter or an ordinal is injected:
+    // the class of a type parameter is named like it, while any other parameter added by reified is prefixed
+    private boolean isInjected(Symbol.MethodSymbol method, Symbol.VarSymbol parameter) {
+        var name = parameter.getSimpleName();
+        return name.toString().startsWith(INJECTED_PREFIX) || method.getTypeParameters()
+                .stream()
+                .anyMatch(typeVariable -> typeVariable.getSimpleName() == name);
+    }
+
+    private String findBinaryName(Type type) {
+        if (type.hasTag(TypeTag.ARRAY)) {
+            return findBinaryName(types.elemtype(type)) + ARRAY_SUFFIX;
+        }
+
+        if (type.tsym instanceof Symbol.ClassSymbol) {
+            return ((Symbol.ClassSymbol) type.tsym).flatName().toString();
+        }
+
+        return type.toString();
+    }
+
+    // A file that isn't written is deleted, so that the one of a previous build doesn't survive in the class output
+    public void write() {
+        write(ReifiedIndex.PATH, index, this::createIndex);
+        write(REFLECT_CONFIG_PATH, reflectConfig, this::createReflectConfig);
+        write(CLASS_LIST_PATH, classList, this::createClassList);
+    }
+
+    private void write(String path, boolean enabled, Supplier<String> content) {
+        if (enabled && !indexedTypes.isEmpty()) {
+            write(path, content.get());
+        } else {
+            delete(path);
+        }
+    }
+
+    private String createIndex() {
+        return indexedTypes.entrySet()
+                .stream()
+                .map(entry -> entry.getKey() + "=" + String.join(",", entry.getValue()))
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    private String createReflectConfig() {
+        return findAllTypes()
+                .stream()
+                .map(type -> "  {\"name\": \"" + type + "\", \"allDeclaredConstructors\": true, \"allDeclaredMethods\": true, \"allDeclaredFields\": true}")
+                .collect(Collectors.joining(",\n", "[\n", "\n]\n"));
+    }
+
+    // Arrays aren't loaded from a class file, so they cannot be archived
+    private String createClassList() {
+        return findAllTypes()
+                .stream()
+                .filter(type -> !type.endsWith(ARRAY_SUFFIX))
+                .map(type -> type.replace('.', '/'))
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    private Set<String> findAllTypes() {
+        return indexedTypes.values()
+                .stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private void delete(String path) {
+        try {
+            fileManager.getFileForOutput(StandardLocation.CLASS_OUTPUT, "", path, null).delete();
+        } catch (IOException exception) {
+            throw new RuntimeException("Cannot delete " + path, exception);
+        }
+    }
+
+    private void write(String path, String content) {
+        try {
+            var file = fileManager.getFileForOutput(StandardLocation.CLASS_OUTPUT, "", path, null);
+            try (var writer = file.openWriter()) {
+                writer.write(content);
+            }
+        } catch (IOException exception) {
+            throw new RuntimeException("Cannot write " + path, exception);
+        }
+    }
+}
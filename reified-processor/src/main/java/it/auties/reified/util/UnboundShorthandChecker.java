@@ -0,0 +1,62 @@
+package it.auties.reified.util;
+
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.tools.javac.api.MultiTaskListener;
+import com.sun.tools.javac.resources.CompilerProperties.Errors;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Log;
+import it.auties.reified.scanner.UnboundShorthandScanner;
+
+// The shorthand methods of the runtime only throw, as their type is passed by reified when it rewrites their invocations.
+// The invocations that weren't rewritten, for example because they aren't inside of a reified member or because their unit was excluded, are reported as errors
+// once their class is attributed, so that they fail the compilation instead of throwing at runtime.
+public class UnboundShorthandChecker implements TaskListener {
+    private final Log log;
+    private final UnboundShorthandScanner scanner;
+    private UnboundShorthandChecker(Context context) {
+        this.log = Log.instance(context);
+        this.scanner = new UnboundShorthandScanner();
+    }
+
+    public static void register(Context context) {
+        if (context.get(UnboundShorthandChecker.class) != null) {
+            return;
+        }
+
+        var checker = new UnboundShorthandChecker(context);
+        context.put(UnboundShorthandChecker.class, checker);
+        MultiTaskListener.instance(context).add(checker);
+    }
+
+    // The event is fired for each top level class, so the other classes of the unit may not be attributed yet
+    @Override
+    public void finished(TaskEvent event) {
+        if (event.getKind() != TaskEvent.Kind.ANALYZE || event.getCompilationUnit() == null) {
+            return;
+        }
+
+        var unit = (JCTree.JCCompilationUnit) event.getCompilationUnit();
+        unit.getTypeDecls()
+                .stream()
+                .filter(tree -> tree instanceof JCTree.JCClassDecl && ((JCTree.JCClassDecl) tree).sym == event.getTypeElement())
+                .forEach(tree -> report(unit, tree));
+    }
+
+    private void report(JCTree.JCCompilationUnit unit, JCTree clazz) {
+        var previous = log.useSource(unit.sourcefile);
+        try {
+            scanner.scan(clazz).forEach(this::report);
+        } finally {
+            log.useSource(previous);
+        }
+    }
+
+    private void report(JCTree tree) {
+        var invoked = tree.hasTag(JCTree.Tag.REFERENCE) ? ((JCTree.JCMemberReference) tree).sym : TreeInfo.symbol(((JCTree.JCMethodInvocation) tree).getMethodSelect());
+        var name = invoked.owner.getSimpleName() + "#" + invoked.getSimpleName() + "()";
+        log.error(tree, Errors.ProcMessager("Cannot invoke " + name + " without a type: reified didn't bind this invocation, pass the type explicitly"));
+    }
+}
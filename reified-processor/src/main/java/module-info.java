@@ -0,0 +1,9 @@
+open module it.auties.reified.processor {
+    requires java.compiler;
+    requires jdk.compiler;
+    requires jdk.unsupported;
+    requires com.google.auto.service;
+    requires it.auties.reified.annotations;
+
+    exports it.auties.reified.processor;
+}
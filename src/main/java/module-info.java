@@ -1,8 +0,0 @@
-open module it.auties.reified {
-    requires java.compiler;
-    requires jdk.compiler;
-    requires jdk.unsupported;
-    requires com.google.auto.service;
-
-    exports it.auties.reified.annotation;
-}
\ No newline at end of file